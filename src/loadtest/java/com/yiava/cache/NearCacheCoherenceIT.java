@@ -0,0 +1,108 @@
+package com.yiava.cache;
+
+import com.yiava.YiavaApplication;
+import com.yiava.entity.Content;
+import com.yiava.service.ContentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Near cache coherence across application instances
+ *
+ * Boots two application contexts on one shared H2 database, the way two nodes share MySQL.
+ * A write on one node must evict the record from the other node's near cache within the
+ * configured max-staleness, through the invalidation log alone.
+ *
+ * Runs with the load test profile: mvn -Ploadtest verify
+ */
+class NearCacheCoherenceIT {
+
+    private static final String DATABASE_URL =
+            "jdbc:h2:mem:yiava_coherence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startNodes() {
+        writer = startNode();
+        reader = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void updateOnOneNodeIsEvictedOnTheOther() throws InterruptedException {
+        Content created = writer.getBean(ContentService.class).create("original");
+        Long id = created.getId();
+
+        assertEquals("original", readOnReader(id).map(Content::getContent).orElse(null));
+        assertNotNull(reader.getBean(ContentNearCache.class).get(id), "reader should serve the record from its near cache");
+
+        writer.getBean(ContentService.class).update(id, "changed");
+
+        assertCoherentWithin(id, cached -> cached == null || "changed".equals(cached.getContent()));
+        assertEquals("changed", readOnReader(id).map(Content::getContent).orElse(null));
+    }
+
+    @Test
+    void deleteOnOneNodeIsEvictedOnTheOther() throws InterruptedException {
+        Content created = writer.getBean(ContentService.class).create("short-lived");
+        Long id = created.getId();
+
+        assertTrue(readOnReader(id).isPresent());
+        assertNotNull(reader.getBean(ContentNearCache.class).get(id), "reader should serve the record from its near cache");
+
+        writer.getBean(ContentService.class).delete(id);
+
+        assertCoherentWithin(id, cached -> cached == null);
+        assertTrue(readOnReader(id).isEmpty());
+    }
+
+    /**
+     * Poll the reader's near cache until the condition holds, failing after max-staleness
+     */
+    private static void assertCoherentWithin(Long id, Predicate<Content> coherent) throws InterruptedException {
+        ContentNearCache nearCache = reader.getBean(ContentNearCache.class);
+        Duration maxStaleness = reader.getBean(NearCacheProperties.class).getMaxStaleness();
+        long deadline = System.nanoTime() + maxStaleness.toNanos();
+        while (!coherent.test(nearCache.get(id))) {
+            assertTrue(System.nanoTime() < deadline,
+                    "reader still caches the old record of ID " + id + " after " + maxStaleness);
+            Thread.sleep(50);
+        }
+    }
+
+    private static Optional<Content> readOnReader(Long id) {
+        return reader.getBean(ContentService.class).findById(id);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(YiavaApplication.class)
+                .run("--spring.profiles.active=loadtest",
+                        "--spring.datasource.url=" + DATABASE_URL,
+                        "--yiava.near-cache.enabled=true",
+                        "--yiava.local-store.enabled=false",
+                        "--yiava.batch-loader.enabled=false",
+                        "--yiava.stats.backfill-on-startup=false");
+    }
+}
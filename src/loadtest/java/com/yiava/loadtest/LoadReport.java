@@ -0,0 +1,93 @@
+package com.yiava.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes load test results and compares them against a stored baseline
+ * Produces report.json (machine readable, usable as the next baseline) and report.md
+ */
+public class LoadReport {
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final LoadTestSettings settings;
+
+    public LoadReport(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Write the reports and, if requested, replace the baseline
+     *
+     * @param results the results of this run
+     * @return the number of metrics that regressed beyond the tolerance
+     * @throws IOException if a report cannot be written
+     */
+    public int write(List<WorkloadResult> results) throws IOException {
+        Map<String, WorkloadResult> baseline = readBaseline();
+        Files.createDirectories(settings.reportDir());
+
+        Map<String, WorkloadResult> current = new LinkedHashMap<>();
+        results.forEach(result -> current.put(result.workload(), result));
+        mapper.writeValue(settings.reportDir().resolve("report.json").toFile(), current);
+
+        StringBuilder md = new StringBuilder();
+        md.append("# Load test report\n\n");
+        md.append(String.format(Locale.ROOT, "Base rate %.0f req/s, %ds measured per workload, tolerance %.0f%%%n%n",
+                settings.rate(), settings.durationSeconds(), settings.tolerancePercent()));
+        md.append("| workload | metric | current | baseline | delta |\n");
+        md.append("|---|---|---:|---:|---:|\n");
+
+        int regressions = 0;
+        for (WorkloadResult result : results) {
+            WorkloadResult base = baseline.get(result.workload());
+            regressions += row(md, result.workload(), "throughput (req/s)", result.throughput(),
+                    base == null ? null : base.throughput(), false);
+            regressions += row(md, result.workload(), "p50 (ms)", result.p50(), base == null ? null : base.p50(), true);
+            regressions += row(md, result.workload(), "p99 (ms)", result.p99(), base == null ? null : base.p99(), true);
+            regressions += row(md, result.workload(), "p999 (ms)", result.p999(), base == null ? null : base.p999(), true);
+            row(md, result.workload(), "errors", result.errors(), base == null ? null : (double) base.errors(), true);
+        }
+        md.append(String.format(Locale.ROOT, "%n%d metric(s) regressed beyond tolerance%n", regressions));
+
+        Path markdown = settings.reportDir().resolve("report.md");
+        Files.writeString(markdown, md.toString(), StandardCharsets.UTF_8);
+        System.out.println(md);
+
+        if (settings.updateBaseline()) {
+            Files.createDirectories(settings.baseline().toAbsolutePath().getParent());
+            mapper.writeValue(settings.baseline().toFile(), current);
+        }
+        return regressions;
+    }
+
+    private int row(StringBuilder md, String workload, String metric, double current, Double base,
+                    boolean lowerIsBetter) {
+        if (base == null || base == 0) {
+            md.append(String.format(Locale.ROOT, "| %s | %s | %.3f | - | - |%n", workload, metric, current));
+            return 0;
+        }
+        double delta = (current - base) / base * 100.0;
+        boolean regressed = lowerIsBetter ? delta > settings.tolerancePercent() : -delta > settings.tolerancePercent();
+        md.append(String.format(Locale.ROOT, "| %s | %s | %.3f | %.3f | %+.1f%%%s |%n",
+                workload, metric, current, base, delta, regressed ? " REGRESSION" : ""));
+        return regressed ? 1 : 0;
+    }
+
+    private Map<String, WorkloadResult> readBaseline() throws IOException {
+        if (!Files.exists(settings.baseline())) {
+            return Map.of();
+        }
+        return mapper.readValue(settings.baseline().toFile(), new TypeReference<LinkedHashMap<String, WorkloadResult>>() { });
+    }
+}
@@ -0,0 +1,86 @@
+package com.yiava.loadtest;
+
+import com.yiava.YiavaApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point of the load test harness
+ *
+ * Boots the application with the loadtest profile (embedded H2 in MySQL mode on a random port),
+ * seeds the content table, runs each configured workload and writes a report comparing
+ * p50/p99/p999 and throughput against the stored baseline.
+ * Exits with status 1 when a metric regressed beyond the tolerance.
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(YiavaApplication.class)
+                .run("--spring.profiles.active=loadtest");
+        int regressions;
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            AtomicLong maxId = new AtomicLong(seed(client, baseUrl, settings.seedRows()));
+            OpenLoadDriver driver = new OpenLoadDriver(client, baseUrl, settings, maxId);
+
+            List<WorkloadResult> results = new ArrayList<>();
+            for (Workload workload : settings.workloads()) {
+                results.add(driver.run(workload));
+            }
+            regressions = new LoadReport(settings).write(results);
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+
+        if (regressions > 0 && !settings.updateBaseline()) {
+            logger.error("{} metric(s) regressed against the baseline", Integer.valueOf(regressions));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Create the initial rows through the public API
+     *
+     * @return the number of rows created, which is also the highest id on a fresh database
+     */
+    private static long seed(HttpClient client, String baseUrl, int rows) throws Exception {
+        logger.info("Seeding {} content rows", Integer.valueOf(rows));
+        for (int i = 0; i < rows; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/content"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"seed row " + i + "\"}"))
+                    .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,62 @@
+package com.yiava.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Load test settings read from system properties
+ *
+ * - loadtest.workloads: comma-separated workload names (default: all)
+ * - loadtest.rate: base arrival rate in requests per second (default: 500)
+ * - loadtest.duration: measured seconds per workload (default: 30)
+ * - loadtest.warmup: unmeasured warm-up seconds per workload (default: 5)
+ * - loadtest.seed-rows: rows created before the first workload (default: 2000)
+ * - loadtest.hot-keys: number of ids receiving the hot-key traffic (default: 10)
+ * - loadtest.baseline: baseline report to compare against
+ * - loadtest.update-baseline: overwrite the baseline with this run (default: false)
+ * - loadtest.tolerance: allowed regression in percent before a metric is flagged (default: 10)
+ * - loadtest.report-dir: output directory (default: target/loadtest)
+ */
+public record LoadTestSettings(
+        List<Workload> workloads,
+        double rate,
+        int durationSeconds,
+        int warmupSeconds,
+        int seedRows,
+        int hotKeys,
+        Path baseline,
+        boolean updateBaseline,
+        double tolerancePercent,
+        Path reportDir
+) {
+
+    /**
+     * Build settings from the current system properties
+     *
+     * @return the settings
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        String workloadNames = System.getProperty("loadtest.workloads", "");
+        List<Workload> workloads = workloadNames.isBlank()
+                ? Arrays.asList(Workload.values())
+                : Arrays.stream(workloadNames.split(","))
+                        .map(Workload::fromExternalName)
+                        .collect(Collectors.toList());
+
+        return new LoadTestSettings(
+                workloads,
+                Double.parseDouble(System.getProperty("loadtest.rate", "500")),
+                Integer.getInteger("loadtest.duration", 30),
+                Integer.getInteger("loadtest.warmup", 5),
+                Integer.getInteger("loadtest.seed-rows", 2000),
+                Integer.getInteger("loadtest.hot-keys", 10),
+                Paths.get(System.getProperty("loadtest.baseline", "src/loadtest/resources/baseline.json")),
+                Boolean.getBoolean("loadtest.update-baseline"),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "10")),
+                Paths.get(System.getProperty("loadtest.report-dir", "target/loadtest"))
+        );
+    }
+}
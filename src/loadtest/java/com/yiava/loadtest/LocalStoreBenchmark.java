@@ -0,0 +1,178 @@
+package com.yiava.loadtest;
+
+import com.yiava.YiavaApplication;
+import com.yiava.entity.Content;
+import com.yiava.mapper.ContentMapper;
+import com.yiava.store.LocalContentStore;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the memory-mapped local store with the database path
+ *
+ * Boots the application with the loadtest profile and the local store enabled, seeds rows
+ * directly through the mapper, then measures the snapshot load time, the resident and heap
+ * memory it adds, and findById latency of both paths. Writes local-store.md to the report dir.
+ *
+ * Run with:
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=com.yiava.loadtest.LocalStoreBenchmark -Dexec.classpathScope=test
+ *
+ * - benchmark.rows: rows seeded before measuring (default: 50000)
+ * - benchmark.length: content length of each row (default: 500)
+ * - benchmark.reads: measured lookups per path (default: 200000)
+ * - loadtest.report-dir: output directory (default: target/loadtest)
+ *
+ * The loadtest profile runs H2 in-process, so the database path here pays no network round
+ * trip; against MySQL the gap is larger.
+ */
+public class LocalStoreBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalStoreBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 50000);
+        int length = Integer.getInteger("benchmark.length", 500);
+        int reads = Integer.getInteger("benchmark.reads", 200000);
+        Path reportDir = Paths.get(System.getProperty("loadtest.report-dir", "target/loadtest"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(YiavaApplication.class)
+                .run("--spring.profiles.active=loadtest",
+                        "--yiava.local-store.enabled=true",
+                        "--yiava.near-cache.enabled=true",
+                        "--yiava.batch-loader.enabled=false",
+                        "--yiava.stats.backfill-on-startup=false");
+        try {
+            ContentMapper mapper = context.getBean(ContentMapper.class);
+            LocalContentStore store = context.getBean(LocalContentStore.class);
+
+            seed(mapper, rows, length);
+
+            long rssBefore = residentBytes();
+            long heapBefore = usedHeapAfterGc();
+            long started = System.nanoTime();
+            store.reload();
+            double loadMillis = (System.nanoTime() - started) / 1_000_000.0;
+            long rssAfter = residentBytes();
+            long heapAfter = usedHeapAfterGc();
+            Map<String, Object> state = store.snapshot();
+
+            Histogram database = measure(reads, rows, id -> mapper.findById(id));
+            Histogram local = measure(reads, rows, store::get);
+
+            StringBuilder md = new StringBuilder();
+            md.append("# Local store benchmark\n\n");
+            md.append(String.format(Locale.ROOT, "%d rows of %d characters, %d lookups per path%n%n", rows, length, reads));
+            md.append("| metric | value |\n|---|---:|\n");
+            md.append(String.format(Locale.ROOT, "| snapshot load (ms) | %.1f |%n", loadMillis));
+            md.append(String.format(Locale.ROOT, "| load rate (rows/s) | %.0f |%n", rows / (loadMillis / 1000.0)));
+            md.append(String.format(Locale.ROOT, "| data file (MB) | %.1f |%n", mb((Long) state.get("fileBytes"))));
+            md.append(String.format(Locale.ROOT, "| mapped (MB) | %.1f |%n", mb((Long) state.get("mappedBytes"))));
+            md.append(String.format(Locale.ROOT, "| off-heap index (MB) | %.1f |%n", mb((Long) state.get("indexBytes"))));
+            md.append(String.format(Locale.ROOT, "| resident growth (MB) | %s |%n",
+                    rssBefore < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", mb(rssAfter - rssBefore))));
+            md.append(String.format(Locale.ROOT, "| heap growth after GC (MB) | %.1f |%n%n", mb(heapAfter - heapBefore)));
+            md.append("| findById path | p50 (us) | p99 (us) | p999 (us) | lookups/s |\n|---|---:|---:|---:|---:|\n");
+            row(md, "database (mapper)", database);
+            row(md, "local store", local);
+
+            Files.createDirectories(reportDir);
+            Files.writeString(reportDir.resolve("local-store.md"), md.toString(), StandardCharsets.UTF_8);
+            System.out.println(md);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void seed(ContentMapper mapper, int rows, int length) {
+        logger.info("Seeding {} content rows", Integer.valueOf(rows));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] text = new char[length];
+        for (int i = 0; i < rows; i++) {
+            for (int c = 0; c < length; c++) {
+                text[c] = (char) ('a' + random.nextInt(26));
+            }
+            Content content = new Content(new String(text));
+            content.setCreatedAt(now);
+            content.setUpdatedAt(now);
+            mapper.insert(content);
+        }
+    }
+
+    private static Histogram measure(int reads, int rows, Lookup lookup) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Warm up both the JIT and the page cache before recording
+        for (int i = 0; i < Math.min(reads, 20000); i++) {
+            lookup.find(1 + random.nextLong(rows));
+        }
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < reads; i++) {
+            long id = 1 + random.nextLong(rows);
+            long start = System.nanoTime();
+            Content content = lookup.find(id);
+            histogram.recordValue(System.nanoTime() - start);
+            if (content == null) {
+                throw new IllegalStateException("Missing content with ID " + id);
+            }
+        }
+        return histogram;
+    }
+
+    private static void row(StringBuilder md, String path, Histogram histogram) {
+        double meanNanos = histogram.getMean();
+        md.append(String.format(Locale.ROOT, "| %s | %.1f | %.1f | %.1f | %.0f |%n", path,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                meanNanos == 0 ? 0 : 1_000_000_000.0 / meanNanos));
+    }
+
+    /**
+     * Resident set size of this process, from /proc where available
+     *
+     * @return bytes, or -1 when unknown
+     */
+    private static long residentBytes() throws IOException {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        List<String> lines = Files.readAllLines(status);
+        for (String line : lines) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+            }
+        }
+        return -1;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        Content find(long id);
+    }
+}
@@ -0,0 +1,163 @@
+package com.yiava.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load driver
+ *
+ * Requests are issued on a fixed schedule derived from the arrival rate, independent of
+ * how fast earlier requests complete. Latency is measured from the intended send time,
+ * not the actual one, so stalls in the server (or in the driver) show up in the
+ * percentiles instead of silently thinning the load (coordinated omission).
+ */
+public class OpenLoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoadDriver.class);
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final AtomicLong maxId;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    public OpenLoadDriver(HttpClient client, String baseUrl, LoadTestSettings settings, AtomicLong maxId) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.maxId = maxId;
+    }
+
+    /**
+     * Run one workload: an unmeasured warm-up followed by the measured phase
+     *
+     * @param workload the workload mix
+     * @return the measured result
+     * @throws InterruptedException if interrupted while waiting for responses
+     */
+    public WorkloadResult run(Workload workload) throws InterruptedException {
+        double rate = settings.rate() * workload.getRateFactor();
+        logger.info("Running workload {} at {} req/s (warm-up {}s, measured {}s)",
+                workload.externalName(), rate, settings.warmupSeconds(), settings.durationSeconds());
+
+        drive(workload, rate, settings.warmupSeconds(), null);
+
+        Map<Workload.Operation, Histogram> histograms = new EnumMap<>(Workload.Operation.class);
+        for (Workload.Operation op : Workload.Operation.values()) {
+            histograms.put(op, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+        }
+        Recording recording = new Recording(histograms);
+        long start = System.nanoTime();
+        drive(workload, rate, settings.durationSeconds(), recording);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        return WorkloadResult.from(workload, rate, elapsedSeconds, histograms,
+                recording.errors.sum());
+    }
+
+    private void drive(Workload workload, double rate, int seconds, Recording recording) throws InterruptedException {
+        long total = (long) (rate * seconds);
+        if (total == 0) {
+            return;
+        }
+        long intervalNanos = (long) (1e9 / rate);
+        CountDownLatch done = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Workload.Operation op = workload.pick(random.nextDouble());
+            HttpRequest request = buildRequest(op);
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, ex) -> {
+                        long latency = System.nanoTime() - intended;
+                        if (recording != null) {
+                            recording.histograms.get(op).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                            if (ex != null || response.statusCode() >= 400) {
+                                recording.errors.increment();
+                            }
+                        }
+                        if (ex == null && op == Workload.Operation.CREATE && response.statusCode() == 201) {
+                            maxId.incrementAndGet();
+                        }
+                        done.countDown();
+                    });
+        }
+
+        if (!done.await(seconds + 60L, TimeUnit.SECONDS)) {
+            logger.warn("Timed out waiting for {} outstanding responses", Long.valueOf(done.getCount()));
+        }
+    }
+
+    private HttpRequest buildRequest(Workload.Operation op) {
+        return switch (op) {
+            case READ -> get("/content/" + uniformId());
+            case READ_HOT -> get("/content/" + hotId());
+            case LIST -> get("/content");
+            case CREATE -> send("POST", "/content", randomBody());
+            case UPDATE -> send("PUT", "/content/"
+                    + (random.nextInt(4) == 0 ? uniformId() : hotId()), randomBody());
+        };
+    }
+
+    private long uniformId() {
+        return 1 + random.nextLong(Math.max(1, maxId.get()));
+    }
+
+    private long hotId() {
+        return 1 + random.nextLong(Math.max(1, Math.min(settings.hotKeys(), maxId.get())));
+    }
+
+    private String randomBody() {
+        int length = 50 + random.nextInt(500);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return "{\"content\":\"" + text + "\"}";
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private record Recording(Map<Workload.Operation, Histogram> histograms, LongAdder errors) {
+        Recording(Map<Workload.Operation, Histogram> histograms) {
+            this(histograms, new LongAdder());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.yiava.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Workload mixes driven against the /api/content endpoints
+ * Each mix is a weighted set of operations plus a rate factor applied to the base arrival rate
+ */
+public enum Workload {
+
+    /**
+     * Mostly point reads with a trickle of writes
+     */
+    READ_HEAVY(1.0, new int[]{90, 0, 5, 5, 0}),
+
+    /**
+     * Creates and updates dominate
+     */
+    WRITE_HEAVY(1.0, new int[]{20, 0, 40, 40, 0}),
+
+    /**
+     * Full list requests only, at a tenth of the base rate since each returns the whole table
+     */
+    BULK_LIST(0.1, new int[]{0, 0, 0, 0, 100}),
+
+    /**
+     * Reads and updates concentrated on a small set of hot ids
+     */
+    HOT_KEY(1.0, new int[]{10, 75, 0, 15, 0});
+
+    /**
+     * Operation kinds, in the same order as the weight arrays
+     */
+    public enum Operation {
+        READ, READ_HOT, CREATE, UPDATE, LIST
+    }
+
+    private final double rateFactor;
+    private final int[] weights;
+    private final int totalWeight;
+
+    Workload(double rateFactor, int[] weights) {
+        this.rateFactor = rateFactor;
+        this.weights = weights;
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Pick an operation according to the mix weights
+     *
+     * @param roll a uniformly distributed value in [0, 1)
+     * @return the operation
+     */
+    public Operation pick(double roll) {
+        int target = (int) (roll * totalWeight);
+        int seen = 0;
+        for (int i = 0; i < weights.length; i++) {
+            seen += weights[i];
+            if (target < seen) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.READ;
+    }
+
+    public double getRateFactor() {
+        return rateFactor;
+    }
+
+    /**
+     * Name used on the command line and in reports, e.g. read-heavy
+     *
+     * @return the external name
+     */
+    public String externalName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Parse an external name such as hot-key
+     *
+     * @param name the external name
+     * @return the workload
+     */
+    public static Workload fromExternalName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
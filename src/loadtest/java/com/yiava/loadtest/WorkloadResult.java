@@ -0,0 +1,82 @@
+package com.yiava.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measured result of a single workload run
+ * Latencies are in milliseconds and include queueing delay from the intended send time
+ *
+ * @param workload the workload external name
+ * @param targetRate the scheduled arrival rate in requests per second
+ * @param completed number of completed requests
+ * @param errors number of failed or non-2xx/3xx responses
+ * @param throughput completed requests per second
+ * @param p50 median latency
+ * @param p99 99th percentile latency
+ * @param p999 99.9th percentile latency
+ * @param max maximum latency
+ * @param operationP99 99th percentile latency per operation kind
+ */
+public record WorkloadResult(
+        String workload,
+        double targetRate,
+        long completed,
+        long errors,
+        double throughput,
+        double p50,
+        double p99,
+        double p999,
+        double max,
+        Map<String, Double> operationP99
+) {
+
+    /**
+     * Build a result from per-operation histograms
+     *
+     * @param workload the workload
+     * @param targetRate the scheduled arrival rate
+     * @param elapsedSeconds wall time of the measured phase including drain
+     * @param histograms latency histograms in nanoseconds
+     * @param errors number of errors
+     * @return the result
+     */
+    public static WorkloadResult from(Workload workload, double targetRate, double elapsedSeconds,
+                                      Map<Workload.Operation, Histogram> histograms, long errors) {
+        Histogram all = null;
+        Map<String, Double> operationP99 = new LinkedHashMap<>();
+        for (Map.Entry<Workload.Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            operationP99.put(entry.getKey().name().toLowerCase(), millis(histogram.getValueAtPercentile(99)));
+            if (all == null) {
+                all = histogram.copy();
+            } else {
+                all.add(histogram);
+            }
+        }
+        if (all == null) {
+            return new WorkloadResult(workload.externalName(), targetRate, 0, errors, 0, 0, 0, 0, 0, operationP99);
+        }
+        return new WorkloadResult(
+                workload.externalName(),
+                targetRate,
+                all.getTotalCount(),
+                errors,
+                all.getTotalCount() / elapsedSeconds,
+                millis(all.getValueAtPercentile(50)),
+                millis(all.getValueAtPercentile(99)),
+                millis(all.getValueAtPercentile(99.9)),
+                millis(all.getMaxValue()),
+                operationP99
+        );
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
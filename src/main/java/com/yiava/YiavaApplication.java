@@ -3,6 +3,7 @@ package com.yiava;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 /**
  * Main Spring Boot application class
@@ -15,18 +16,27 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *
  * Additional annotations:
  * - @MapperScan: Scans for MyBatis mapper interfaces in com.yiava.mapper package
+ *
+ * Startup steps are buffered and exposed at /actuator/startup
  */
 @SpringBootApplication
 @MapperScan("com.yiava.mapper")
 public class YiavaApplication {
 
+    /**
+     * Maximum number of startup steps kept for the startup actuator endpoint
+     */
+    private static final int STARTUP_STEP_CAPACITY = 4096;
+
     /**
      * Main method - Spring Boot entry point
      *
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        SpringApplication.run(YiavaApplication.class, args);
+        SpringApplication application = new SpringApplication(YiavaApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
         System.out.println("""
 
                 ╔══════════════════════════════════════════════════════════════╗
@@ -0,0 +1,18 @@
+package com.yiava.cache;
+
+import java.util.Collection;
+
+/**
+ * Receives the content ids read from the invalidation log after every successful poll
+ * Implementations run on the tailer thread and should not block for long
+ */
+public interface ContentInvalidationListener {
+
+    /**
+     * Called after each successful poll, also when no content changed
+     *
+     * @param contentIds ids of content records written on any node since the previous poll
+     * @param pollStartMillis when the poll started; changes committed before this have been seen
+     */
+    void invalidated(Collection<Long> contentIds, long pollStartMillis);
+}
@@ -0,0 +1,252 @@
+package com.yiava.cache;
+
+import com.yiava.entity.Content;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-node cache in front of ContentMapper.findById
+ *
+ * Coherence across nodes comes from the content_invalidation log: writes append to it in
+ * their own transaction and {@link NearCacheInvalidationTailer} evicts the listed ids on every
+ * node. Entries are only served while the tailer has polled successfully within
+ * max-staleness, which bounds how long another node's write can go unseen.
+ *
+ * Records are copied on the way in and out so callers never share a mutable instance.
+ */
+@Component
+public class ContentNearCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentNearCache.class);
+
+    /**
+     * Number of eviction stamps; a put is discarded if its stripe saw an eviction during the load
+     */
+    private static final int STRIPES = 64;
+
+    private final NearCacheProperties properties;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Long> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+    private final AtomicLongArray evictionStamps = new AtomicLongArray(STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long lastPollStartMillis;
+    private volatile boolean stale = true;
+
+    public ContentNearCache(NearCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Whether the cache and the invalidation log are enabled
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Look up a cached record
+     *
+     * @param id the content ID
+     * @return a copy of the cached record, or null on miss or while the cache is too stale to serve
+     */
+    public Content get(Long id) {
+        if (!isServing()) {
+            bypasses.increment();
+            return null;
+        }
+        Entry entry = entries.get(id);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAtMillis > properties.getTtl().toMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(entry.content);
+    }
+
+    /**
+     * Read the eviction stamp for an id before loading it from the database
+     *
+     * @param id the content ID
+     * @return the stamp to pass to {@link #put(Long, Content, long)}
+     */
+    public long stamp(Long id) {
+        return evictionStamps.get(stripeOf(id));
+    }
+
+    /**
+     * Cache a record loaded from the database
+     * Discarded if an eviction for the same stripe happened since {@link #stamp(Long)}
+     *
+     * @param id the content ID
+     * @param content the loaded record
+     * @param stamp the stamp taken before the load
+     */
+    public void put(Long id, Content content, long stamp) {
+        if (!isServing() || content == null) {
+            return;
+        }
+        int stripe = stripeOf(id);
+        if (evictionStamps.get(stripe) != stamp) {
+            return;
+        }
+        Entry entry = new Entry(copyOf(content), System.currentTimeMillis());
+        if (entries.put(id, entry) == null) {
+            insertionOrder.add(id);
+            insertionOrderSize.incrementAndGet();
+        }
+        // An eviction may have slipped in between the check and the put
+        if (evictionStamps.get(stripe) != stamp) {
+            entries.remove(id, entry);
+        }
+        trim();
+    }
+
+    /**
+     * Evict an id on this node
+     *
+     * @param id the content ID
+     */
+    public void evict(Long id) {
+        evictionStamps.incrementAndGet(stripeOf(id));
+        if (entries.remove(id) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Evict an id now and again when the surrounding transaction commits
+     * The second eviction drops values that concurrent readers loaded before the commit
+     *
+     * @param id the content ID
+     */
+    public void evictAfterCommit(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            evictionStamps.incrementAndGet(i);
+        }
+        entries.clear();
+        insertionOrder.clear();
+        insertionOrderSize.set(0);
+    }
+
+    /**
+     * Record a successful poll of the invalidation log
+     * If the cache had gone stale, everything is dropped since invalidations may have been pruned meanwhile
+     *
+     * @param pollStartMillis when the poll started
+     */
+    public void markPolled(long pollStartMillis) {
+        if (stale) {
+            clear();
+            stale = false;
+            logger.info("Near cache is serving");
+        }
+        lastPollStartMillis = pollStartMillis;
+    }
+
+    /**
+     * Current staleness bound: time since the last successful poll started
+     *
+     * @return the staleness in milliseconds, or -1 if no poll succeeded yet
+     */
+    public long stalenessMillis() {
+        long last = lastPollStartMillis;
+        return last == 0 ? -1 : System.currentTimeMillis() - last;
+    }
+
+    /**
+     * Build a JSON-friendly snapshot of the cache state
+     *
+     * @return the snapshot
+     */
+    public Map<String, Object> snapshot() {
+        long staleness = stalenessMillis();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.put("serving", isServing());
+        view.put("size", entries.size());
+        view.put("maxEntries", properties.getMaxEntries());
+        view.put("hits", hits.sum());
+        view.put("misses", misses.sum());
+        view.put("bypasses", bypasses.sum());
+        view.put("evictions", evictions.sum());
+        view.put("stalenessMillis", staleness);
+        view.put("maxStalenessMillis", properties.getMaxStaleness().toMillis());
+        view.put("lastPollStart", lastPollStartMillis == 0 ? null : Instant.ofEpochMilli(lastPollStartMillis));
+        return view;
+    }
+
+    private boolean isServing() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        long staleness = stalenessMillis();
+        if (staleness < 0 || staleness > properties.getMaxStaleness().toMillis()) {
+            if (!stale) {
+                stale = true;
+                logger.warn("Near cache bypassed: last invalidation poll started {} ms ago", Long.valueOf(staleness));
+            }
+            return false;
+        }
+        return !stale;
+    }
+
+    private void trim() {
+        int max = properties.getMaxEntries();
+        while (entries.size() > max || insertionOrderSize.get() > 2 * max) {
+            Long oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            entries.remove(oldest);
+        }
+    }
+
+    private static int stripeOf(Long id) {
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+
+    private static Content copyOf(Content content) {
+        Content copy = new Content(content.getId(), content.getContent(), content.getCreatedAt(), content.getUpdatedAt());
+        copy.setVersion(content.getVersion());
+        return copy;
+    }
+
+    private record Entry(Content content, long loadedAtMillis) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.yiava.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint reporting near cache state and its current staleness bound
+ * Available at /actuator/nearcache
+ */
+@Component
+@Endpoint(id = "nearcache")
+public class NearCacheEndpoint {
+
+    private final ContentNearCache nearCache;
+    private final NearCacheInvalidationTailer tailer;
+
+    public NearCacheEndpoint(ContentNearCache nearCache, NearCacheInvalidationTailer tailer) {
+        this.nearCache = nearCache;
+        this.tailer = tailer;
+    }
+
+    /**
+     * Cache size, hit counts, staleness and pending log gaps
+     *
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> nearCache() {
+        Map<String, Object> view = nearCache.snapshot();
+        view.put("pendingGaps", tailer.pendingGaps());
+        return view;
+    }
+
+    /**
+     * Drop every entry on this node
+     */
+    @DeleteOperation
+    public void clear() {
+        nearCache.clear();
+    }
+}
@@ -0,0 +1,171 @@
+package com.yiava.cache;
+
+import com.yiava.entity.ContentInvalidation;
+import com.yiava.mapper.ContentInvalidationMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Tails the content_invalidation log and evicts the listed ids from the near cache
+ * The ids read by each poll are also handed to every {@link ContentInvalidationListener} bean.
+ *
+ * Auto-increment ids are allocated at insert time but become visible at commit, so a
+ * transaction holding a lower id can commit after a higher one was already read. Ids skipped
+ * by the tail are remembered as gaps and re-checked until they appear or reach gap-timeout
+ * (rolled back inserts never appear).
+ *
+ * Poll and prune run on the Spring task scheduler; all tail state is confined to that thread.
+ */
+@Component
+public class NearCacheInvalidationTailer implements SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheInvalidationTailer.class);
+
+    /**
+     * Upper bound on tracked gaps so a large auto-increment jump cannot exhaust memory
+     */
+    private static final int MAX_GAPS = 10000;
+
+    private final ContentInvalidationMapper invalidationMapper;
+    private final ContentNearCache nearCache;
+    private final NearCacheProperties properties;
+    private final ObjectProvider<ContentInvalidationListener> listeners;
+
+    private final Set<Long> changedIds = new LinkedHashSet<>();
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long highestSeen = -1;
+
+    public NearCacheInvalidationTailer(ContentInvalidationMapper invalidationMapper,
+                                       ContentNearCache nearCache,
+                                       NearCacheProperties properties,
+                                       ObjectProvider<ContentInvalidationListener> listeners) {
+        this.invalidationMapper = invalidationMapper;
+        this.nearCache = nearCache;
+        this.properties = properties;
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        taskRegistrar.addFixedDelayTask(this::poll, properties.getPollInterval().toMillis());
+        taskRegistrar.addFixedDelayTask(this::prune, properties.getPruneInterval().toMillis());
+    }
+
+    /**
+     * Read new log entries and evict their ids
+     * Failures leave the cache to go stale on its own once max-staleness passes
+     */
+    public void poll() {
+        long start = System.currentTimeMillis();
+        try {
+            if (highestSeen < 0) {
+                // Nothing is cached yet, so earlier entries are irrelevant
+                highestSeen = invalidationMapper.findMaxId();
+                logger.info("Tailing content invalidation log from id {}", Long.valueOf(highestSeen));
+            }
+
+            List<ContentInvalidation> batch;
+            do {
+                batch = invalidationMapper.findAfter(highestSeen, properties.getBatchSize());
+                for (ContentInvalidation entry : batch) {
+                    trackGaps(entry.getId(), start);
+                    apply(entry);
+                    highestSeen = entry.getId();
+                }
+            } while (batch.size() == properties.getBatchSize());
+
+            recheckGaps(start);
+            nearCache.markPolled(start);
+            Set<Long> changed = Set.copyOf(changedIds);
+            changedIds.clear();
+            listeners.orderedStream().forEach(listener -> listener.invalidated(changed, start));
+        } catch (Exception ex) {
+            logger.warn("Failed to poll content invalidation log: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Delete log entries older than the retention period in bounded batches
+     */
+    public void prune() {
+        try {
+            long retentionSeconds = properties.getRetention().toSeconds();
+            int deleted;
+            int total = 0;
+            do {
+                deleted = invalidationMapper.deleteOlderThan(retentionSeconds, properties.getBatchSize());
+                total += deleted;
+            } while (deleted == properties.getBatchSize());
+            if (total > 0) {
+                logger.debug("Pruned {} content invalidation entries", Integer.valueOf(total));
+            }
+        } catch (Exception ex) {
+            logger.warn("Failed to prune content invalidation log: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Number of log ids currently awaiting commit visibility
+     *
+     * @return the gap count
+     */
+    public int pendingGaps() {
+        synchronized (gaps) {
+            return gaps.size();
+        }
+    }
+
+    private void apply(ContentInvalidation entry) {
+        nearCache.evict(entry.getContentId());
+        changedIds.add(entry.getContentId());
+    }
+
+    private void trackGaps(long id, long now) {
+        synchronized (gaps) {
+            if (id <= highestSeen) {
+                gaps.remove(id);
+                return;
+            }
+            for (long missing = highestSeen + 1; missing < id && gaps.size() < MAX_GAPS; missing++) {
+                gaps.put(missing, now);
+            }
+        }
+    }
+
+    private void recheckGaps(long now) {
+        List<Long> pending;
+        synchronized (gaps) {
+            Iterator<Map.Entry<Long, Long>> it = gaps.entrySet().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().getValue() > properties.getGapTimeout().toMillis()) {
+                    it.remove();
+                }
+            }
+            if (gaps.isEmpty()) {
+                return;
+            }
+            pending = new ArrayList<>(gaps.keySet()).subList(0, Math.min(gaps.size(), properties.getBatchSize()));
+        }
+        for (ContentInvalidation entry : invalidationMapper.findByIds(pending)) {
+            apply(entry);
+            synchronized (gaps) {
+                gaps.remove(entry.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.yiava.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the per-node content near cache
+ * Bound from the yiava.near-cache prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.near-cache")
+public class NearCacheProperties {
+
+    /**
+     * Whether reads are cached and writes are logged to content_invalidation
+     * Must be the same on every node sharing the database
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached records per node
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Upper bound on how long a single entry is served, independent of invalidations
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Delay between two polls of the invalidation log
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * The cache is bypassed when the last successful poll started longer ago than this
+     * This is the bound on how stale a cached read can be after another node's write
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of log entries read per query
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a skipped log id is re-checked before it is assumed to be a rolled back insert
+     */
+    private Duration gapTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Log entries older than this are pruned
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Delay between two prune runs
+     */
+    private Duration pruneInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() { return enabled; }
+    public int getMaxEntries() { return maxEntries; }
+    public Duration getTtl() { return ttl; }
+    public Duration getPollInterval() { return pollInterval; }
+    public Duration getMaxStaleness() { return maxStaleness; }
+    public int getBatchSize() { return batchSize; }
+    public Duration getGapTimeout() { return gapTimeout; }
+    public Duration getRetention() { return retention; }
+    public Duration getPruneInterval() { return pruneInterval; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    public void setMaxStaleness(Duration maxStaleness) { this.maxStaleness = maxStaleness; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setGapTimeout(Duration gapTimeout) { this.gapTimeout = gapTimeout; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+    public void setPruneInterval(Duration pruneInterval) { this.pruneInterval = pruneInterval; }
+}
@@ -0,0 +1,20 @@
+package com.yiava.config;
+
+import com.yiava.cache.NearCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Cache configuration class
+ * Binds the near cache properties and enables the task scheduler used to tail the invalidation log
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.near-cache.*: cache size, poll interval and staleness bound
+ * - spring.task.scheduling.pool.size: scheduler threads shared by background tasks
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class CacheConfig {
+}
@@ -0,0 +1,44 @@
+package com.yiava.config;
+
+import com.yiava.resilience.CircuitBreakerDruidFilter;
+import com.yiava.resilience.CircuitBreakerInterceptor;
+import com.yiava.resilience.CircuitBreakerProperties;
+import com.yiava.resilience.DatabaseCircuitBreaker;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Database circuit breaker configuration class
+ * Registers the hooks that feed and enforce the breaker
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.circuit-breaker.*: trip thresholds, open duration, probe count and stale store size
+ */
+@Configuration
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+public class CircuitBreakerConfig {
+
+    /**
+     * Statement outcome hook
+     * Interceptor beans are picked up by the MyBatis auto-configuration and added to the SqlSessionFactory
+     *
+     * @param circuitBreaker the breaker
+     * @return the interceptor
+     */
+    @Bean
+    public CircuitBreakerInterceptor circuitBreakerInterceptor(DatabaseCircuitBreaker circuitBreaker) {
+        return new CircuitBreakerInterceptor(circuitBreaker);
+    }
+
+    /**
+     * Connection gate; Druid Filter beans are added to the pool by the Druid starter
+     *
+     * @param circuitBreaker the breaker
+     * @return the filter
+     */
+    @Bean
+    public CircuitBreakerDruidFilter circuitBreakerDruidFilter(DatabaseCircuitBreaker circuitBreaker) {
+        return new CircuitBreakerDruidFilter(circuitBreaker);
+    }
+}
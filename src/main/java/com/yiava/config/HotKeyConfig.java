@@ -0,0 +1,19 @@
+package com.yiava.config;
+
+import com.yiava.hotkey.HotKeyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hot-key detection configuration class
+ * Binds the hot-key properties
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.hot-keys.width, depth, top-k: sketch size, fixed regardless of the number of ids
+ * - yiava.hot-keys.decay-interval: how quickly old traffic stops counting
+ * - yiava.hot-keys.write-hot-rate: updates per second above which an id is flagged
+ */
+@Configuration
+@EnableConfigurationProperties(HotKeyProperties.class)
+public class HotKeyConfig {
+}
@@ -0,0 +1,18 @@
+package com.yiava.config;
+
+import com.yiava.ingest.ImportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulk import configuration class
+ * Binds the import properties
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.import.*: batch size, record size limit and error report size
+ * - spring.servlet.multipart.*: uploads are spooled to disk, so their size is not bounded by memory
+ */
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+}
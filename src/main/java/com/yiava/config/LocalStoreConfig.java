@@ -0,0 +1,36 @@
+package com.yiava.config;
+
+import com.yiava.cache.NearCacheProperties;
+import com.yiava.store.LocalStoreProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local store configuration class
+ * Binds the local store properties and refuses to start without the invalidation log
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.local-store.enabled: serve findById/findAll from the memory-mapped snapshot
+ * - yiava.local-store.directory: where the data file is written
+ *
+ * The snapshot load starts from the first poll of the invalidation log, which the near cache tails.
+ */
+@Configuration
+@EnableConfigurationProperties(LocalStoreProperties.class)
+public class LocalStoreConfig {
+
+    /**
+     * Check that an enabled local store is kept current
+     * Without the invalidation log it would keep serving records other nodes have changed or deleted
+     *
+     * @param properties the local store properties
+     * @param nearCacheProperties the near cache properties
+     * @throws IllegalStateException if the local store is enabled and the near cache is not
+     */
+    public LocalStoreConfig(LocalStoreProperties properties, NearCacheProperties nearCacheProperties) {
+        if (properties.isEnabled() && !nearCacheProperties.isEnabled()) {
+            throw new IllegalStateException("yiava.local-store.enabled requires yiava.near-cache.enabled, "
+                    + "whose invalidation log tells the local store about writes on other nodes");
+        }
+    }
+}
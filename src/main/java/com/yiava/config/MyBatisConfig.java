@@ -1,6 +1,14 @@
 package com.yiava.config;
 
+import com.yiava.monitor.SqlProfileEndpoint;
+import com.yiava.monitor.SqlProfileInterceptor;
+import com.yiava.monitor.SqlProfileProperties;
+import com.yiava.monitor.SqlProfiler;
+import com.yiava.service.BatchLoaderProperties;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
@@ -10,6 +18,7 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @MapperScan("com.yiava.mapper")
+@EnableConfigurationProperties({SqlProfileProperties.class, BatchLoaderProperties.class})
 public class MyBatisConfig {
 
     /**
@@ -21,4 +30,41 @@ public class MyBatisConfig {
      * - mybatis.type-aliases-package: com.yiava.entity
      * - mybatis.configuration.map-underscore-to-camel-case: true
      */
+
+    /**
+     * Registry of per-statement SQL statistics
+     *
+     * @param properties the profiler properties
+     * @return the profiler
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.sql-profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlProfiler sqlProfiler(SqlProfileProperties properties) {
+        return new SqlProfiler(properties);
+    }
+
+    /**
+     * Statement profiling interceptor
+     * Interceptor beans are picked up by the MyBatis auto-configuration and added to the SqlSessionFactory
+     *
+     * @param sqlProfiler the profiler registry
+     * @return the interceptor
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.sql-profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlProfileInterceptor sqlProfileInterceptor(SqlProfiler sqlProfiler) {
+        return new SqlProfileInterceptor(sqlProfiler);
+    }
+
+    /**
+     * Actuator endpoint at /actuator/sqlprofile
+     *
+     * @param sqlProfiler the profiler registry
+     * @return the endpoint
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.sql-profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SqlProfileEndpoint sqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        return new SqlProfileEndpoint(sqlProfiler);
+    }
 }
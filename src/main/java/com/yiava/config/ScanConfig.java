@@ -0,0 +1,20 @@
+package com.yiava.config;
+
+import com.yiava.scan.ScanProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Parallel table scan configuration class
+ * Binds the scan properties
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.scan.enabled: split full-table jobs (export, statistics backfill, local store load) into id ranges
+ * - yiava.scan.max-connections / max-pool-usage: how many pooled connections all scans may hold together
+ * - yiava.scan.ranges-per-connection / sample-size: how finely and how the id space is split
+ * - yiava.scan.max-concurrent-exports: exports running at once before further ones are turned away
+ */
+@Configuration
+@EnableConfigurationProperties(ScanProperties.class)
+public class ScanConfig {
+}
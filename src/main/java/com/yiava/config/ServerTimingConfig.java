@@ -0,0 +1,87 @@
+package com.yiava.config;
+
+import com.yiava.monitor.ServerTimingDruidFilter;
+import com.yiava.monitor.ServerTimingFilter;
+import com.yiava.monitor.ServerTimingInterceptor;
+import com.yiava.monitor.ServerTimingJacksonConverter;
+import com.yiava.monitor.ServerTimingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Server-Timing configuration class
+ * Registers the timing filter and the hooks each layer records into
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.server-timing.enabled: register the filter and hooks at all
+ * - yiava.server-timing.sample-rate: fraction of requests timed
+ * - yiava.server-timing.force-header: request header that forces timing of a single request
+ * - yiava.server-timing.streaming-paths: paths whose responses are never buffered
+ */
+@Configuration
+@EnableConfigurationProperties(ServerTimingProperties.class)
+@ConditionalOnProperty(prefix = "yiava.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    /**
+     * Timing filter, ordered early so the total covers nearly the whole request
+     *
+     * @param properties the timing properties
+     * @param meterRegistry registry for the per-phase timers
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Statement execution and result mapping hook
+     * Interceptor beans are picked up by the MyBatis auto-configuration and added to the SqlSessionFactory
+     *
+     * @return the interceptor
+     */
+    @Bean
+    public ServerTimingInterceptor serverTimingInterceptor() {
+        return new ServerTimingInterceptor();
+    }
+
+    /**
+     * Connection wait hook; Druid Filter beans are added to the pool by the Druid starter
+     *
+     * @return the filter
+     */
+    @Bean
+    public ServerTimingDruidFilter serverTimingDruidFilter() {
+        return new ServerTimingDruidFilter();
+    }
+
+    /**
+     * Replace the JSON converter with one that records serialization time
+     *
+     * @param converters the converters configured so far
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                converters.set(i, new ServerTimingJacksonConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.yiava.config;
+
+import com.yiava.controller.ContentController;
+import com.yiava.service.ContentService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.ValidateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup configuration class
+ * Supports the fast-startup profile (application-fast.yml) and the AppCDS training run
+ *
+ * With spring.main.lazy-initialization enabled, beans are created on first use. The request
+ * path for /content is kept eager so the first request after readiness does not pay for it.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    /**
+     * Beans that stay eager when lazy initialization is enabled
+     *
+     * @return the exclude filter
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ContentController.class, ContentService.class);
+    }
+
+    /**
+     * Validate Flyway migrations in the background once the application is ready
+     * Used together with spring.flyway.validate-on-migrate=false so the checksum scan
+     * is taken off the startup path without being dropped entirely
+     *
+     * @param flyway the auto-configured Flyway instance
+     * @return the listener
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.startup", name = "deferred-flyway-validation", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> deferredFlywayValidation(ObjectProvider<Flyway> flyway) {
+        return event -> flyway.ifAvailable(instance -> {
+            Thread validator = new Thread(() -> {
+                ValidateResult result = instance.validateWithResult();
+                if (result.validationSuccessful) {
+                    logger.info("Deferred Flyway validation succeeded");
+                } else {
+                    logger.error("Deferred Flyway validation failed: {}", result.getAllErrorMessages());
+                }
+            }, "flyway-deferred-validation");
+            validator.setDaemon(true);
+            validator.start();
+        });
+    }
+
+    /**
+     * Exit as soon as the application is ready
+     * Used by the cds Maven profile: the training run loads every class needed to start,
+     * then exits so the JVM can write the AppCDS archive
+     *
+     * @return the listener
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.startup", name = "exit-on-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> {
+            logger.info("Startup training run complete, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+}
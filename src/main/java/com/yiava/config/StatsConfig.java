@@ -0,0 +1,50 @@
+package com.yiava.config;
+
+import com.yiava.stats.ContentStatsProperties;
+import com.yiava.stats.ContentStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Statistics configuration class
+ * Binds the rollup properties and schedules the startup backfill
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.stats.enabled: whether content writes maintain the rollup
+ * - yiava.stats.backfill-on-startup: rebuild an empty rollup once the application is ready (off by default)
+ */
+@Configuration
+@EnableConfigurationProperties(ContentStatsProperties.class)
+public class StatsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsConfig.class);
+
+    /**
+     * Backfill an empty rollup in the background once the application is ready
+     * Several nodes starting together may each run it; the rebuild is idempotent
+     *
+     * @param statsService the statistics service
+     * @return the listener
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yiava.stats", name = "backfill-on-startup", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> statsStartupBackfill(ContentStatsService statsService) {
+        return event -> {
+            Thread backfill = new Thread(() -> {
+                try {
+                    statsService.backfillIfEmpty();
+                } catch (RuntimeException ex) {
+                    logger.error("Content statistics backfill failed", ex);
+                }
+            }, "content-stats-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        };
+    }
+}
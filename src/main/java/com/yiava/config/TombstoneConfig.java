@@ -0,0 +1,19 @@
+package com.yiava.config;
+
+import com.yiava.tombstone.TombstoneProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tombstone delete configuration class
+ * Binds the tombstone properties
+ *
+ * The following properties are configured in application.yml:
+ * - yiava.tombstone.enabled: deletes only set content.deleted_at
+ * - yiava.tombstone.retention: how long tombstones stay visible to the feed before the purge
+ * - yiava.tombstone.purge-*: batch size, pacing and the pool usage above which the purge waits
+ */
+@Configuration
+@EnableConfigurationProperties(TombstoneProperties.class)
+public class TombstoneConfig {
+}
@@ -1,24 +1,61 @@
 package com.yiava.controller;
 
+import com.yiava.dto.ContentImportResponse;
+import com.yiava.dto.ContentPatchRequest;
 import com.yiava.dto.ContentRequest;
 import com.yiava.dto.ContentResponse;
+import com.yiava.dto.ContentStatsResponse;
+import com.yiava.dto.ContentTombstoneResponse;
 import com.yiava.entity.Content;
+import com.yiava.exception.ConflictException;
+import com.yiava.exception.DatabaseUnavailableException;
+import com.yiava.exception.PreconditionFailedException;
+import com.yiava.ingest.ContentImporter;
+import com.yiava.ingest.ImportFormat;
+import com.yiava.monitor.ServerTiming;
+import com.yiava.resilience.LastKnownGoodStore;
+import com.yiava.scan.ContentExporter;
 import com.yiava.service.ContentService;
+import com.yiava.stats.ContentStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.util.WebUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * REST Controller for Content CRUD operations
  * Handles HTTP requests and responses for content management
+ *
+ * Single-record responses carry an ETag of the form "{id}-{version}" and a Last-Modified header.
+ * GET honors If-None-Match / If-Modified-Since, PUT and PATCH honor If-Match.
+ *
+ * While the database circuit breaker is open, single and multi-get fall back to the records
+ * last read on this node and mark the response with "Warning: 110"; other requests get a 503.
  */
 @RestController
 @RequestMapping("/content")
@@ -27,10 +64,29 @@ public class ContentController {
 
     private static final Logger logger = LoggerFactory.getLogger(ContentController.class);
 
+    /**
+     * RFC 7234 warning attached to responses served from the last-known-good store
+     */
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    /**
+     * Media type of the export stream
+     */
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final ContentService contentService;
+    private final ContentStatsService statsService;
+    private final ContentImporter contentImporter;
+    private final ContentExporter contentExporter;
 
-    public ContentController(ContentService contentService) {
+    public ContentController(ContentService contentService,
+                             ContentStatsService statsService,
+                             ContentImporter contentImporter,
+                             ContentExporter contentExporter) {
         this.contentService = contentService;
+        this.statsService = statsService;
+        this.contentImporter = contentImporter;
+        this.contentExporter = contentExporter;
     }
 
     /**
@@ -51,7 +107,92 @@ public class ContentController {
         ContentResponse response = toResponse(content);
 
         logger.info("Successfully created content with ID: {}", content.getId());
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etagOf(content)).body(response);
+    }
+
+    /**
+     * Bulk import content records from an NDJSON or CSV upload
+     * The body is either the file itself (any transfer encoding, including chunked) or a
+     * multipart form with a "file" part. Records are streamed, so memory use does not depend
+     * on the upload size; invalid records are skipped and listed in the response.
+     *
+     * @param format "ndjson" or "csv"; derived from the content type or file name if omitted
+     * @param offset number of records to skip, e.g. the resumeOffset of a failed import
+     * @param importId optional identifier for following progress while the import runs
+     * @param request the HTTP request carrying the upload
+     * @return ResponseEntity with ContentImportResponse and HTTP 200 status, or HTTP 500 if the import stopped early
+     * @throws IOException if the upload cannot be opened
+     * @throws IllegalArgumentException if the format cannot be determined or a parameter is invalid
+     */
+    @PostMapping("/import")
+    @Operation(summary = "Bulk import content records", description = "Stream NDJSON ({\"content\": \"...\"} per line) or CSV (optional 'content' header) records; resumable with ?offset=")
+    public ResponseEntity<ContentImportResponse> importContent(
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(required = false) String importId,
+            HttpServletRequest request) throws IOException {
+        logger.info("Received request to import content");
+
+        MultipartHttpServletRequest multipart = WebUtils.getNativeRequest(request, MultipartHttpServletRequest.class);
+        InputStream input;
+        ImportFormat importFormat;
+        Charset charset = StandardCharsets.UTF_8;
+        if (multipart != null) {
+            MultipartFile file = multipart.getFile("file");
+            if (file == null) {
+                throw new IllegalArgumentException("Multipart import requires a 'file' part");
+            }
+            importFormat = ImportFormat.resolve(format, file.getContentType(), file.getOriginalFilename());
+            input = file.getInputStream();
+        } else {
+            importFormat = ImportFormat.resolve(format, request.getContentType(), null);
+            if (request.getCharacterEncoding() != null) {
+                charset = Charset.forName(request.getCharacterEncoding());
+            }
+            input = request.getInputStream();
+        }
+
+        ContentImportResponse response;
+        try (InputStream body = input) {
+            response = contentImporter.importContent(body, charset, importFormat, offset, importId);
+        }
+
+        HttpStatus status = "FAILED".equals(response.status()) ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Get the progress of a running or recently finished import
+     *
+     * @param importId the import identifier
+     * @return ResponseEntity with ContentImportResponse and HTTP 200 status, or HTTP 404 if unknown
+     */
+    @GetMapping("/import/{importId}")
+    @Operation(summary = "Get bulk import progress", description = "Records read, imported and rejected so far, rows per second and the resume offset")
+    public ResponseEntity<ContentImportResponse> getImportProgress(@PathVariable String importId) {
+        return contentImporter.progress(importId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Export all content records as NDJSON, in ascending id order
+     * The response is streamed while the table is read in parallel id ranges; its lines can be
+     * fed back to the bulk import
+     *
+     * @param response the HTTP response to write to
+     * @throws IOException if writing fails, e.g. because the client went away
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export all content records", description = "Stream every record as one JSON object per line, in id order")
+    public void exportContent(HttpServletResponse response) throws IOException {
+        logger.info("Received request to export content");
+
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        long exported = contentExporter.exportNdjson(response.getOutputStream());
+        logger.info("Successfully exported {} content records", exported);
     }
 
     /**
@@ -64,59 +205,190 @@ public class ContentController {
     public ResponseEntity<List<ContentResponse>> getAllContent() {
         logger.debug("Received request to get all content");
 
-        List<Content> contentList = contentService.findAll();
-        List<ContentResponse> responseList = contentList.stream()
+        List<Content> contentList = ServerTiming.time("svc", contentService::findAll);
+        List<ContentResponse> responseList = ServerTiming.time("conv", () -> contentList.stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
         logger.info("Returning {} content records", responseList.size());
         return ResponseEntity.ok(responseList);
     }
 
+    /**
+     * Get several content records by ID
+     * Missing IDs are skipped; lookups share the batched findById path. While the database is
+     * unavailable, the records last read on this node are returned, marked as stale.
+     *
+     * @param ids comma-separated content IDs
+     * @return ResponseEntity with list of ContentResponse and HTTP 200 status
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get content records by IDs", description = "Retrieve several content records by their identifiers, e.g. ?ids=1,2,3")
+    public ResponseEntity<List<ContentResponse>> getContentByIds(@RequestParam List<Long> ids) {
+        logger.debug("Received request to get {} content records by ID", ids.size());
+
+        List<Content> contentList;
+        try {
+            contentList = ServerTiming.time("svc", () -> contentService.findByIds(ids));
+        } catch (RuntimeException ex) {
+            DatabaseUnavailableException unavailable = DatabaseUnavailableException.causeOf(ex);
+            if (unavailable == null) {
+                throw ex;
+            }
+            return staleContent(ids, unavailable);
+        }
+        List<ContentResponse> responseList = ServerTiming.time("conv", () -> contentList.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+
+        logger.info("Returning {} of {} requested content records", responseList.size(), ids.size());
+        return ResponseEntity.ok(responseList);
+    }
+
+    /**
+     * Get content statistics per time bucket
+     * Served from the hourly rollup, so the cost depends on the number of buckets, not records
+     *
+     * @param from inclusive start (ISO date-time), optional
+     * @param to exclusive end (ISO date-time), optional
+     * @param bucket "hour" or "day"
+     * @return ResponseEntity with ContentStatsResponse and HTTP 200 status
+     * @throws IllegalArgumentException if the bucket or range is invalid
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get content statistics", description = "Record count, total and average content length per hour or day, e.g. ?from=2026-10-01T00:00:00&to=2026-10-08T00:00:00&bucket=day")
+    public ResponseEntity<ContentStatsResponse> getContentStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String bucket) {
+        logger.debug("Received request for content statistics from {} to {} by {}", from, to, bucket);
+
+        ContentStatsResponse response = statsService.query(from, to, bucket);
+
+        logger.info("Returning content statistics with {} buckets", response.buckets().size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * List tombstones of deleted content records, for consumers that mirror the table
+     * Page through with the deletedAt and id of the last tombstone received as since and afterId
+     *
+     * @param since inclusive start (ISO date-time), optional
+     * @param afterId among tombstones deleted exactly at since, only greater IDs are listed
+     * @param limit maximum number of tombstones
+     * @return ResponseEntity with list of ContentTombstoneResponse and HTTP 200 status
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    @GetMapping("/tombstones")
+    @Operation(summary = "List deleted content records", description = "Tombstones in deletion order, e.g. ?since=2026-10-19T08:00:00&afterId=42&limit=1000; kept until the retention period passes")
+    public ResponseEntity<List<ContentTombstoneResponse>> getTombstones(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        logger.debug("Received request for content tombstones since {} after ID {}", since, afterId);
+
+        List<ContentTombstoneResponse> responseList = contentService.findTombstones(since, afterId, limit).stream()
+                .map(tombstone -> new ContentTombstoneResponse(tombstone.getId(), tombstone.getVersion(), tombstone.getDeletedAt()))
+                .collect(Collectors.toList());
+
+        logger.info("Returning {} content tombstones", responseList.size());
+        return ResponseEntity.ok(responseList);
+    }
+
     /**
      * Get content by ID
+     * With If-None-Match or If-Modified-Since, the validators are checked first and a
+     * 304 is returned without fetching the content column or serializing a body
      *
      * @param id the content ID
-     * @return ResponseEntity with ContentResponse and HTTP 200 status
+     * @param webRequest the current request, used for conditional checks
+     * @return ResponseEntity with ContentResponse and HTTP 200 status, or HTTP 304 if unchanged
      * @throws RuntimeException if content not found
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get content record by ID", description = "Retrieve a specific content record by its unique identifier")
-    public ResponseEntity<ContentResponse> getContentById(@PathVariable Long id) {
+    public ResponseEntity<ContentResponse> getContentById(@PathVariable Long id, WebRequest webRequest) {
         logger.debug("Received request to get content by ID: {}", id);
 
-        Content content = contentService.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Content not found with ID: {}", id);
-                    return new RuntimeException("Content not found with ID: " + id);
-                });
-
-        ContentResponse response = toResponse(content);
-        logger.info("Successfully retrieved content with ID: {}", id);
-        return ResponseEntity.ok(response);
+        try {
+            return currentContent(id, webRequest);
+        } catch (RuntimeException ex) {
+            DatabaseUnavailableException unavailable = DatabaseUnavailableException.causeOf(ex);
+            if (unavailable == null) {
+                throw ex;
+            }
+            return staleContent(id, unavailable);
+        }
     }
 
     /**
      * Update content by ID
+     * With If-Match, the update only applies if the record still has one of the given versions
      *
      * @param id the content ID
      * @param request the content request containing updated text content
+     * @param ifMatch optional ETag the client last saw
      * @return ResponseEntity with updated ContentResponse and HTTP 200 status
      * @throws RuntimeException if content not found
+     * @throws PreconditionFailedException if If-Match does not match the current version
+     * @throws ConflictException if, without If-Match, concurrent writes kept changing the record
      */
     @PutMapping("/{id}")
     @Operation(summary = "Update content record", description = "Update an existing content record with new content text")
     public ResponseEntity<ContentResponse> updateContent(
             @PathVariable Long id,
-            @Valid @RequestBody ContentRequest request) {
+            @Valid @RequestBody ContentRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         logger.info("Received request to update content with ID: {}", id);
 
-        Content updatedContent = contentService.update(id, request.getContent());
+        Content updatedContent = contentService.update(id, request.getContent(), expectedVersions(id, ifMatch));
         ContentResponse response = toResponse(updatedContent);
 
         logger.info("Successfully updated content with ID: {}", id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(etagOf(updatedContent))
+                .lastModified(lastModifiedOf(updatedContent))
+                .body(response);
+    }
+
+    /**
+     * Edit content by ID with compact operations (append, insert, delete, replace)
+     * The operations are applied atomically on the server; with "Prefer: return=minimal"
+     * the response is 204 with only the new ETag instead of the full record
+     *
+     * @param id the content ID
+     * @param request the edit operations
+     * @param ifMatch optional ETag the client last saw
+     * @param prefer optional Prefer header
+     * @return ResponseEntity with updated ContentResponse and HTTP 200 status, or HTTP 204
+     * @throws RuntimeException if content not found
+     * @throws PreconditionFailedException if the record has none of the versions listed in If-Match
+     * @throws ConflictException if, without If-Match, concurrent writes kept changing the record
+     */
+    @PatchMapping("/{id}")
+    @Operation(summary = "Edit content record", description = "Apply append/insert/delete/replace operations to an existing content record")
+    public ResponseEntity<ContentResponse> patchContent(
+            @PathVariable Long id,
+            @Valid @RequestBody ContentPatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+
+        logger.info("Received request to patch content with ID: {}", id);
+
+        Content updatedContent = contentService.patch(id, request.getOperations(), expectedVersions(id, ifMatch));
+
+        logger.info("Successfully patched content with ID: {}", id);
+        if (prefer != null && prefer.contains("return=minimal")) {
+            return ResponseEntity.noContent()
+                    .eTag(etagOf(updatedContent))
+                    .lastModified(lastModifiedOf(updatedContent))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etagOf(updatedContent))
+                .lastModified(lastModifiedOf(updatedContent))
+                .body(toResponse(updatedContent));
     }
 
     /**
@@ -127,7 +399,7 @@ public class ContentController {
      * @throws RuntimeException if content not found
      */
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete content record", description = "Delete a content record by its unique identifier")
+    @Operation(summary = "Delete content record", description = "Delete a content record by its unique identifier; the deletion is listed under /content/tombstones")
     public ResponseEntity<Void> deleteContent(@PathVariable Long id) {
         logger.info("Received request to delete content with ID: {}", id);
 
@@ -137,6 +409,78 @@ public class ContentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Get the current version of a content record, honoring conditional request headers
+     *
+     * @param id the content ID
+     * @param webRequest the current request, used for conditional checks
+     * @return ResponseEntity with ContentResponse and HTTP 200 status, or HTTP 304 if unchanged
+     */
+    private ResponseEntity<ContentResponse> currentContent(Long id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<Content> validator = ServerTiming.time("svc", () -> contentService.findValidator(id));
+            if (validator.isPresent()
+                    && webRequest.checkNotModified(etagOf(validator.get()), lastModifiedOf(validator.get()))) {
+                // checkNotModified has already set the status and validator headers
+                logger.debug("Content with ID: {} not modified", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+
+        Content content = ServerTiming.time("svc", () -> contentService.findById(id))
+                .orElseThrow(() -> {
+                    logger.warn("Content not found with ID: {}", id);
+                    return new RuntimeException("Content not found with ID: " + id);
+                });
+
+        ContentResponse response = ServerTiming.time("conv", () -> toResponse(content));
+        logger.info("Successfully retrieved content with ID: {}", id);
+        return ResponseEntity.ok()
+                .eTag(etagOf(content))
+                .lastModified(lastModifiedOf(content))
+                .body(response);
+    }
+
+    /**
+     * Serve the record last read on this node while the database is unavailable
+     *
+     * @param id the content ID
+     * @param unavailable the breaker rejection, rethrown if nothing was remembered
+     * @return ResponseEntity with the stale ContentResponse, a Warning and an Age header
+     */
+    private ResponseEntity<ContentResponse> staleContent(Long id, DatabaseUnavailableException unavailable) {
+        LastKnownGoodStore.Entry entry = contentService.findLastKnownGood(id).orElseThrow(() -> unavailable);
+        long ageSeconds = Math.max(0, (System.currentTimeMillis() - entry.readAtMillis()) / 1000);
+        logger.warn("Database unavailable, serving content with ID: {} as read {}s ago", id, Long.valueOf(ageSeconds));
+        return ResponseEntity.ok()
+                .eTag(etagOf(entry.content()))
+                .lastModified(lastModifiedOf(entry.content()))
+                .header(HttpHeaders.WARNING, STALE_WARNING)
+                .header(HttpHeaders.AGE, Long.toString(ageSeconds))
+                .body(toResponse(entry.content()));
+    }
+
+    /**
+     * Serve the records last read on this node while the database is unavailable
+     *
+     * @param ids the requested content IDs
+     * @param unavailable the breaker rejection, rethrown if none of the records was remembered
+     * @return ResponseEntity with the stale ContentResponses and a Warning header
+     */
+    private ResponseEntity<List<ContentResponse>> staleContent(List<Long> ids, DatabaseUnavailableException unavailable) {
+        List<ContentResponse> responseList = new ArrayList<>();
+        ids.stream().distinct().forEach(id -> contentService.findLastKnownGood(id)
+                .ifPresent(entry -> responseList.add(toResponse(entry.content()))));
+        if (responseList.isEmpty()) {
+            throw unavailable;
+        }
+        logger.warn("Database unavailable, serving {} of {} requested content records as last read", responseList.size(), ids.size());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.WARNING, STALE_WARNING)
+                .body(responseList);
+    }
+
     /**
      * Convert Content entity to ContentResponse DTO
      *
@@ -151,4 +495,66 @@ public class ContentController {
                 content.getUpdatedAt()
         );
     }
+
+    /**
+     * Build the ETag of a content record
+     *
+     * @param content the content entity, with id and version set
+     * @return the quoted ETag value
+     */
+    private static String etagOf(Content content) {
+        return "\"" + content.getId() + "-" + content.getVersion() + "\"";
+    }
+
+    /**
+     * Last-Modified value of a content record
+     *
+     * @param content the content entity
+     * @return epoch milliseconds, or -1 if unknown
+     */
+    private static long lastModifiedOf(Content content) {
+        if (content.getUpdatedAt() == null) {
+            return -1;
+        }
+        return content.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Extract the expected versions from an If-Match header
+     * The write goes ahead if the current version is any of them (RFC 9110 13.1.1)
+     *
+     * @param id the content ID the request targets
+     * @param ifMatch the header value, may be null
+     * @return the versions of every listed strong ETag of this record, or null for an
+     *         unconditional write (no header or "*")
+     * @throws PreconditionFailedException if no listed strong ETag belongs to this record
+     */
+    private static Set<Long> expectedVersions(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = id + "-";
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                // If-Match uses the strong comparison (RFC 9110 13.1.1): a weak tag never matches
+                continue;
+            }
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.startsWith(prefix)) {
+                try {
+                    versions.add(Long.valueOf(value.substring(prefix.length())));
+                } catch (NumberFormatException ex) {
+                    // Not one of our ETags, keep looking
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not match content with ID " + id);
+        }
+        return versions;
+    }
 }
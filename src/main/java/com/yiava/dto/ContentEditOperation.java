@@ -0,0 +1,147 @@
+package com.yiava.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Data Transfer Object for a single edit in a content PATCH request
+ * Offsets and lengths count characters of the content text as it is after the preceding edits
+ *
+ * - append: add text at the end
+ * - insert: add text at offset
+ * - delete: remove length characters starting at offset
+ * - replace: replace length characters starting at offset with text
+ */
+public class ContentEditOperation {
+
+    /**
+     * Kind of edit
+     */
+    public enum Type {
+        @JsonProperty("append") APPEND,
+        @JsonProperty("insert") INSERT,
+        @JsonProperty("delete") DELETE,
+        @JsonProperty("replace") REPLACE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type op;
+
+    @Min(value = 0, message = "Offset must not be negative")
+    private Integer offset;
+
+    @Min(value = 0, message = "Length must not be negative")
+    private Integer length;
+
+    @Size(max = 5000, message = "Text must not exceed 5000 characters")
+    private String text;
+
+    /**
+     * Default constructor
+     */
+    public ContentEditOperation() {
+    }
+
+    /**
+     * Full constructor
+     *
+     * @param op the kind of edit
+     * @param offset the start offset, for insert, delete and replace
+     * @param length the number of characters removed, for delete and replace
+     * @param text the text added, for append, insert and replace
+     */
+    public ContentEditOperation(Type op, Integer offset, Integer length, String text) {
+        this.op = op;
+        this.offset = offset;
+        this.length = length;
+        this.text = text;
+    }
+
+    /**
+     * Get the kind of edit
+     *
+     * @return the operation type
+     */
+    public Type getOp() {
+        return op;
+    }
+
+    /**
+     * Set the kind of edit
+     *
+     * @param op the operation type to set
+     */
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    /**
+     * Get the start offset
+     *
+     * @return the offset
+     */
+    public Integer getOffset() {
+        return offset;
+    }
+
+    /**
+     * Set the start offset
+     *
+     * @param offset the offset to set
+     */
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * Get the number of characters removed
+     *
+     * @return the length
+     */
+    public Integer getLength() {
+        return length;
+    }
+
+    /**
+     * Set the number of characters removed
+     *
+     * @param length the length to set
+     */
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    /**
+     * Get the text added
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Set the text added
+     *
+     * @param text the text to set
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Override toString for better debugging
+     */
+    @Override
+    public String toString() {
+        return "ContentEditOperation{" +
+                "op=" + op +
+                ", offset=" + offset +
+                ", length=" + length +
+                ", text=" + (text != null ? text.length() + " chars" : null) +
+                '}';
+    }
+}
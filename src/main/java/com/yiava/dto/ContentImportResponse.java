@@ -0,0 +1,57 @@
+package com.yiava.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the progress or result of a bulk import
+ *
+ * @param importId the import identifier
+ * @param format the input format
+ * @param status RUNNING, COMPLETED or FAILED
+ * @param startOffset number of records skipped at the start, as requested
+ * @param recordsRead records read after the skipped ones
+ * @param imported records inserted and committed
+ * @param rejected records that failed parsing or validation
+ * @param resumeOffset offset to pass to resume after a failure; every record before it is committed or reported
+ * @param rowsPerSecond committed rows per second since the start
+ * @param elapsedMillis time since the start, or the total duration once finished
+ * @param startedAt when the import started
+ * @param finishedAt when it finished, null while running
+ * @param failure why the import stopped, null unless FAILED
+ * @param errors per-record errors, capped at the configured maximum
+ */
+public record ContentImportResponse(
+        String importId,
+        String format,
+        String status,
+        long startOffset,
+        long recordsRead,
+        long imported,
+        long rejected,
+        long resumeOffset,
+        double rowsPerSecond,
+        long elapsedMillis,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime startedAt,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime finishedAt,
+
+        String failure,
+        List<RecordError> errors
+) {
+
+    /**
+     * A rejected record
+     *
+     * @param record the record number, counted from the start of the stream (1-based)
+     * @param line the line the record starts on (1-based)
+     * @param message why it was rejected
+     */
+    public record RecordError(long record, long line, String message) {
+    }
+}
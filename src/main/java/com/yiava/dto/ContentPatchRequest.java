@@ -0,0 +1,63 @@
+package com.yiava.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Data Transfer Object for Content PATCH requests
+ * Carries a list of edits applied in order, atomically, to the stored content text
+ */
+public class ContentPatchRequest {
+
+    /**
+     * The edits to apply, in order
+     */
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "At most 100 operations are allowed per request")
+    private List<@Valid ContentEditOperation> operations;
+
+    /**
+     * Default constructor
+     */
+    public ContentPatchRequest() {
+    }
+
+    /**
+     * Constructor with operations
+     *
+     * @param operations the edits to apply
+     */
+    public ContentPatchRequest(List<ContentEditOperation> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Get the edits to apply
+     *
+     * @return the operations
+     */
+    public List<ContentEditOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Set the edits to apply
+     *
+     * @param operations the operations to set
+     */
+    public void setOperations(List<ContentEditOperation> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * Override toString for better debugging
+     */
+    @Override
+    public String toString() {
+        return "ContentPatchRequest{" +
+                "operations=" + operations +
+                '}';
+    }
+}
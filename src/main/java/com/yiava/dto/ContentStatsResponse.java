@@ -0,0 +1,52 @@
+package com.yiava.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for content statistics over a time range
+ * Only buckets that contain at least one record are listed
+ *
+ * @param bucket the bucket granularity ("hour" or "day")
+ * @param from inclusive start of the range, aligned to the bucket granularity
+ * @param to exclusive end of the range
+ * @param contentCount number of records created in the range
+ * @param totalLength sum of their content lengths
+ * @param averageLength average content length, 0 when the range is empty
+ * @param buckets per-bucket figures, in time order
+ */
+public record ContentStatsResponse(
+        String bucket,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime from,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime to,
+
+        long contentCount,
+        long totalLength,
+        double averageLength,
+        List<Bucket> buckets
+) {
+
+    /**
+     * Figures for a single bucket
+     *
+     * @param start start of the bucket
+     * @param contentCount number of records created in the bucket
+     * @param totalLength sum of their content lengths
+     * @param averageLength average content length
+     */
+    public record Bucket(
+            @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+            LocalDateTime start,
+
+            long contentCount,
+            long totalLength,
+            double averageLength
+    ) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.yiava.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for a deleted content record
+ * A consumer passes the deletedAt and id of the last tombstone it received as the
+ * since and afterId parameters of its next request; deletedAt is written in ISO form at
+ * full precision so it can be passed back unchanged
+ *
+ * @param id the content ID
+ * @param version the version set by the delete, one past the last live version
+ * @param deletedAt when the record was deleted
+ */
+public record ContentTombstoneResponse(
+        Long id,
+        Long version,
+        LocalDateTime deletedAt
+) {
+}
@@ -10,6 +10,7 @@ public class Content {
 
     private Long id;
     private String content;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -79,6 +80,24 @@ public class Content {
         this.content = content;
     }
 
+    /**
+     * Get the version, incremented on every update
+     *
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set the version
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Get the creation timestamp
      *
@@ -150,6 +169,7 @@ public class Content {
         return "Content{" +
                 "id=" + id +
                 ", content='" + (content != null ? content.substring(0, Math.min(50, content.length())) + "..." : null) + '\'' +
+                ", version=" + version +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
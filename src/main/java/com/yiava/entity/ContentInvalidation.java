@@ -0,0 +1,86 @@
+package com.yiava.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Invalidation log entry
+ * Maps to the 'content_invalidation' table, one row per content write
+ */
+public class ContentInvalidation {
+
+    private Long id;
+    private Long contentId;
+    private LocalDateTime createdAt;
+
+    /**
+     * Default constructor
+     */
+    public ContentInvalidation() {
+    }
+
+    /**
+     * Get the log entry identifier
+     *
+     * @return the ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the log entry identifier
+     *
+     * @param id the ID to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the id of the content record that changed
+     *
+     * @return the content ID
+     */
+    public Long getContentId() {
+        return contentId;
+    }
+
+    /**
+     * Set the id of the content record that changed
+     *
+     * @param contentId the content ID to set
+     */
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    /**
+     * Get the write timestamp
+     *
+     * @return the creation timestamp
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Set the write timestamp
+     *
+     * @param createdAt the creation timestamp to set
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Override toString for better debugging
+     */
+    @Override
+    public String toString() {
+        return "ContentInvalidation{" +
+                "id=" + id +
+                ", contentId=" + contentId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
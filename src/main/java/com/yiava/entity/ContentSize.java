@@ -0,0 +1,103 @@
+package com.yiava.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the statistics rollup needs to know about a content record
+ * Loaded without the content text; the length is computed by the database
+ */
+public class ContentSize {
+
+    private Long id;
+    private Long version;
+    private LocalDateTime createdAt;
+    private long contentLength;
+
+    /**
+     * Default constructor
+     */
+    public ContentSize() {
+    }
+
+    /**
+     * Get the content ID
+     *
+     * @return the ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the content ID
+     *
+     * @param id the ID to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the version the size was read at
+     *
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set the version
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Get the creation time, which picks the rollup bucket
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Set the creation time
+     *
+     * @param createdAt the creation time to set
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Get the content length in characters
+     *
+     * @return the length
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Set the content length
+     *
+     * @param contentLength the length to set
+     */
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentSize{" +
+                "id=" + id +
+                ", version=" + version +
+                ", createdAt=" + createdAt +
+                ", contentLength=" + contentLength +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.yiava.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rollup of the content records created in one time bucket
+ * Maps to the 'content_stats_hourly' table; query results carry the sum over all slots
+ */
+public class ContentStatsBucket {
+
+    private LocalDateTime bucketStart;
+    private Integer slot;
+    private long contentCount;
+    private long totalLength;
+    private LocalDateTime changedAt;
+
+    /**
+     * Default constructor
+     */
+    public ContentStatsBucket() {
+    }
+
+    /**
+     * Full constructor
+     *
+     * @param bucketStart the start of the bucket
+     * @param slot the slot within the bucket
+     * @param contentCount the number of records
+     * @param totalLength the sum of their content lengths
+     */
+    public ContentStatsBucket(LocalDateTime bucketStart, Integer slot, long contentCount, long totalLength) {
+        this.bucketStart = bucketStart;
+        this.slot = slot;
+        this.contentCount = contentCount;
+        this.totalLength = totalLength;
+    }
+
+    /**
+     * Get the start of the bucket
+     *
+     * @return the bucket start
+     */
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    /**
+     * Set the start of the bucket
+     *
+     * @param bucketStart the bucket start to set
+     */
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Get the slot within the bucket, null for summed query results
+     *
+     * @return the slot
+     */
+    public Integer getSlot() {
+        return slot;
+    }
+
+    /**
+     * Set the slot within the bucket
+     *
+     * @param slot the slot to set
+     */
+    public void setSlot(Integer slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Get the number of records
+     *
+     * @return the count
+     */
+    public long getContentCount() {
+        return contentCount;
+    }
+
+    /**
+     * Set the number of records
+     *
+     * @param contentCount the count to set
+     */
+    public void setContentCount(long contentCount) {
+        this.contentCount = contentCount;
+    }
+
+    /**
+     * Get the sum of content lengths
+     *
+     * @return the total length
+     */
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * Set the sum of content lengths
+     *
+     * @param totalLength the total length to set
+     */
+    public void setTotalLength(long totalLength) {
+        this.totalLength = totalLength;
+    }
+
+    /**
+     * Get the last time a content write changed the slot
+     *
+     * @return the change time, null if only the backfill wrote the slot
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * Set the last time a content write changed the slot
+     *
+     * @param changedAt the change time to set
+     */
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentStatsBucket{" +
+                "bucketStart=" + bucketStart +
+                ", slot=" + slot +
+                ", contentCount=" + contentCount +
+                ", totalLength=" + totalLength +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
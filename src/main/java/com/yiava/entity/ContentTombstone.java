@@ -0,0 +1,96 @@
+package com.yiava.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left in the 'content' table by a delete until the tombstone purge removes the row
+ * Only the identifying columns are loaded; the content text is no longer visible
+ */
+public class ContentTombstone {
+
+    private Long id;
+    private Long version;
+    private LocalDateTime deletedAt;
+
+    /**
+     * Default constructor
+     */
+    public ContentTombstone() {
+    }
+
+    /**
+     * Full constructor
+     *
+     * @param id the content ID
+     * @param version the version set by the delete
+     * @param deletedAt when the record was deleted
+     */
+    public ContentTombstone(Long id, Long version, LocalDateTime deletedAt) {
+        this.id = id;
+        this.version = version;
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Get the content ID
+     *
+     * @return the ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the content ID
+     *
+     * @param id the ID to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the version set by the delete, one past the last live version
+     *
+     * @return the version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set the version
+     *
+     * @param version the version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Get the time the record was deleted
+     *
+     * @return the deletion time
+     */
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    /**
+     * Set the time the record was deleted
+     *
+     * @param deletedAt the deletion time to set
+     */
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentTombstone{" +
+                "id=" + id +
+                ", version=" + version +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.yiava.exception;
+
+/**
+ * Thrown when an unconditional write keeps losing to concurrent writes of the same record
+ * Mapped to HTTP 409 Conflict by GlobalExceptionHandler
+ */
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructor with message
+     *
+     * @param message the detail message
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.yiava.exception;
+
+/**
+ * Thrown instead of waiting on the database while its circuit breaker is open
+ * Mapped to HTTP 503 Service Unavailable by GlobalExceptionHandler, also when it arrives
+ * wrapped in a Spring or MyBatis exception
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with message
+     *
+     * @param message the detail message
+     * @param retryAfterSeconds when the breaker will next let a request through
+     */
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Seconds until the breaker next lets a request through
+     *
+     * @return the delay, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Find this exception in a cause chain
+     *
+     * @param ex the exception thrown by a database call
+     * @return the breaker rejection, or null if the call failed for another reason
+     */
+    public static DatabaseUnavailableException causeOf(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.yiava.exception;
+
+/**
+ * Thrown when a conditional write does not match the current state of the record
+ * Mapped to HTTP 412 Precondition Failed by GlobalExceptionHandler
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructor with message
+     *
+     * @param message the detail message
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.yiava.exception;
+
+/**
+ * Thrown when a request is turned away because too many like it are already running
+ * Mapped to HTTP 503 Service Unavailable with a Retry-After header by GlobalExceptionHandler
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with message
+     *
+     * @param message the detail message
+     * @param retryAfterSeconds how long the client should wait before retrying
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Seconds the client should wait before retrying
+     *
+     * @return the delay, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,205 @@
+package com.yiava.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch with a top-K candidate set, for finding the most frequent ids of a stream
+ *
+ * Counts are kept in depth rows of width counters; an id's estimate is the minimum of its
+ * counters, which never undercounts and overcounts by at most e/width of the total with
+ * high probability. Memory is fixed at depth x width longs plus K ids, however many distinct
+ * ids are seen. {@link #decay()} halves every counter, so counts weigh recent traffic and old
+ * hot ids fade out.
+ *
+ * {@link #add(long)} is lock-free for ids that are already candidates or too cold to become
+ * one; only an id whose estimate passes the weakest candidate takes the candidate lock.
+ */
+public final class HeavyHitterSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int width;
+    private final int depth;
+    private final int capacity;
+    private final AtomicLongArray counters;
+    private final AtomicLong total = new AtomicLong();
+
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private volatile long floor;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth number of rows, at most 8
+     * @param capacity number of top ids tracked
+     */
+    public HeavyHitterSketch(int width, int depth, int capacity) {
+        if (width < 1 || depth < 1 || depth > SEEDS.length || capacity < 1) {
+            throw new IllegalArgumentException("Width and capacity must be positive and depth between 1 and " + SEEDS.length);
+        }
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.capacity = capacity;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * Count one occurrence of an id
+     *
+     * @param id the id
+     */
+    public void add(long id) {
+        total.incrementAndGet();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, id)));
+        }
+        if (estimate > floor && !candidates.contains(id)) {
+            offer(id, estimate);
+        }
+    }
+
+    /**
+     * Estimated count of an id
+     *
+     * @param id the id
+     * @return the decayed count, never below the true decayed count
+     */
+    public long estimate(long id) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, id)));
+        }
+        return estimate;
+    }
+
+    /**
+     * The current top ids with their estimated counts
+     *
+     * @param limit maximum number of entries
+     * @return id and count pairs, highest count first
+     */
+    public List<long[]> top(int limit) {
+        List<long[]> entries = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            long count = estimate(id);
+            if (count > 0) {
+                entries.add(new long[]{id, count});
+            }
+        }
+        entries.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    /**
+     * Halve every counter and the total
+     * Safe to run concurrently with {@link #add(long)}; no increment is lost
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >> 1));
+        }
+        long value;
+        do {
+            value = total.get();
+        } while (!total.compareAndSet(value, value >> 1));
+        synchronized (candidates) {
+            candidates.removeIf(id -> estimate(id) == 0);
+            floor = weakest()[1];
+        }
+    }
+
+    /**
+     * Forget every count and candidate
+     */
+    public void clear() {
+        synchronized (candidates) {
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, 0);
+            }
+            total.set(0);
+            candidates.clear();
+            floor = 0;
+        }
+    }
+
+    /**
+     * Decayed number of occurrences counted
+     *
+     * @return the total
+     */
+    public long total() {
+        return total.get();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void offer(long id, long estimate) {
+        synchronized (candidates) {
+            if (candidates.contains(id)) {
+                return;
+            }
+            if (candidates.size() < capacity) {
+                candidates.add(id);
+                floor = candidates.size() < capacity ? 0 : weakest()[1];
+                return;
+            }
+            long[] weakest = weakest();
+            if (estimate > weakest[1]) {
+                candidates.remove(weakest[0]);
+                candidates.add(id);
+                weakest = weakest();
+            }
+            floor = weakest[1];
+        }
+    }
+
+    /**
+     * The candidate with the lowest estimate; callers hold the candidate lock
+     *
+     * @return id and count, or {0, 0} while the candidate set has room
+     */
+    private long[] weakest() {
+        if (candidates.size() < capacity) {
+            return new long[]{0, 0};
+        }
+        long[] weakest = {0, Long.MAX_VALUE};
+        for (Long id : candidates) {
+            long count = estimate(id);
+            if (count < weakest[1]) {
+                weakest[0] = id;
+                weakest[1] = count;
+            }
+        }
+        return weakest;
+    }
+
+    private int index(int row, long id) {
+        long hash = (id ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 31;
+        hash *= 0x94D049BB133111EBL;
+        hash ^= hash >>> 29;
+        return row * width + (int) (hash & (width - 1));
+    }
+}
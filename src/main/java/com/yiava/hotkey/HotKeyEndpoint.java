@@ -0,0 +1,45 @@
+package com.yiava.hotkey;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the hottest content ids on this node
+ * Available at /actuator/hotkeys (optional ?limit=N); DELETE resets the counts
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+    private final HotKeyTracker tracker;
+    private final HotKeyProperties properties;
+
+    public HotKeyEndpoint(HotKeyTracker tracker, HotKeyProperties properties) {
+        this.tracker = tracker;
+        this.properties = properties;
+    }
+
+    /**
+     * Hottest read and written ids with their estimated rates
+     *
+     * @param limit maximum number of ids per list, defaults to top-k
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys(@Nullable Integer limit) {
+        return tracker.snapshot(limit == null ? properties.getTopK() : limit);
+    }
+
+    /**
+     * Forget all counts on this node
+     */
+    @DeleteOperation
+    public void clear() {
+        tracker.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.yiava.hotkey;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hot-key detection
+ * Bound from the yiava.hot-keys prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.hot-keys")
+public class HotKeyProperties {
+
+    /**
+     * Whether reads and writes are counted
+     */
+    private boolean enabled = true;
+
+    /**
+     * Counters per sketch row; the overcount is at most about 2.7 / width of all accesses
+     */
+    private int width = 4096;
+
+    /**
+     * Sketch rows; each row lowers the chance that an id's estimate is off
+     */
+    private int depth = 4;
+
+    /**
+     * Number of hottest ids tracked per sketch
+     */
+    private int topK = 32;
+
+    /**
+     * Interval at which all counts are halved; counts older than a few intervals no longer matter
+     */
+    private Duration decayInterval = Duration.ofMinutes(1);
+
+    /**
+     * Ids updated more often than this many times per second are flagged as write-hot,
+     * likely to queue on their row lock
+     */
+    private double writeHotRate = 5.0;
+
+    public boolean isEnabled() { return enabled; }
+    public int getWidth() { return width; }
+    public int getDepth() { return depth; }
+    public int getTopK() { return topK; }
+    public Duration getDecayInterval() { return decayInterval; }
+    public double getWriteHotRate() { return writeHotRate; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setWidth(int width) { this.width = width; }
+    public void setDepth(int depth) { this.depth = depth; }
+    public void setTopK(int topK) { this.topK = topK; }
+    public void setDecayInterval(Duration decayInterval) { this.decayInterval = decayInterval; }
+    public void setWriteHotRate(double writeHotRate) { this.writeHotRate = writeHotRate; }
+}
@@ -0,0 +1,178 @@
+package com.yiava.hotkey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the most read and most written content ids with two decayed heavy-hitter sketches
+ *
+ * Counts are halved every decay-interval, so for an id accessed at a steady rate r the count
+ * settles at r * (T + t), T being the interval and t the time since the last halving; rates
+ * are reported as count / (T + t), with T scaled down while the tracker has been up for less
+ * than a few intervals. Ids whose write rate exceeds write-hot-rate are flagged and logged
+ * once, as updates to one row serialize on its lock.
+ *
+ * Decay runs on the Spring task scheduler.
+ */
+@Component
+public class HotKeyTracker implements SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final HotKeyProperties properties;
+    private final HeavyHitterSketch reads;
+    private final HeavyHitterSketch writes;
+
+    private final Set<Long> writeHot = new HashSet<>();
+    private volatile long lastDecayNanos = System.nanoTime();
+    private volatile int decays;
+
+    public HotKeyTracker(HotKeyProperties properties) {
+        this.properties = properties;
+        this.reads = new HeavyHitterSketch(properties.getWidth(), properties.getDepth(), properties.getTopK());
+        this.writes = new HeavyHitterSketch(properties.getWidth(), properties.getDepth(), properties.getTopK());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getDecayInterval().toMillis();
+        // The first halving is one interval after startup, which the window calculation assumes
+        taskRegistrar.addFixedRateTask(new IntervalTask(this::decay, interval, interval));
+    }
+
+    /**
+     * Count a read of a content id
+     *
+     * @param id the content ID
+     */
+    public void recordRead(long id) {
+        if (properties.isEnabled()) {
+            reads.add(id);
+        }
+    }
+
+    /**
+     * Count a write to a content id
+     *
+     * @param id the content ID
+     */
+    public void recordWrite(long id) {
+        if (properties.isEnabled()) {
+            writes.add(id);
+        }
+    }
+
+    /**
+     * Flag newly write-hot ids, then halve all counts
+     */
+    public void decay() {
+        try {
+            flagWriteHot();
+            reads.decay();
+            writes.decay();
+            lastDecayNanos = System.nanoTime();
+            decays++;
+        } catch (Exception ex) {
+            logger.warn("Failed to decay hot-key sketches: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Hottest ids and their estimated rates
+     *
+     * @param limit maximum number of ids per list
+     * @return the snapshot
+     */
+    public Map<String, Object> snapshot(int limit) {
+        double window = windowSeconds();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.put("width", reads.width());
+        view.put("depth", reads.depth());
+        view.put("windowSeconds", round(window));
+        view.put("reads", sketchView(reads, window, limit, false));
+        view.put("writes", sketchView(writes, window, limit, true));
+        return view;
+    }
+
+    /**
+     * Forget all counts
+     */
+    public void clear() {
+        reads.clear();
+        writes.clear();
+        synchronized (writeHot) {
+            writeHot.clear();
+        }
+    }
+
+    private Map<String, Object> sketchView(HeavyHitterSketch sketch, double window, int limit, boolean flagWriteHot) {
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (long[] entry : sketch.top(limit)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            double rate = entry[1] / window;
+            item.put("id", entry[0]);
+            item.put("count", entry[1]);
+            item.put("ratePerSecond", round(rate));
+            if (flagWriteHot) {
+                item.put("writeHot", rate > properties.getWriteHotRate());
+            }
+            top.add(item);
+        }
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("total", sketch.total());
+        view.put("ratePerSecond", round(sketch.total() / window));
+        // Count-Min estimates exceed the true count by at most e / width of the total (with high probability)
+        view.put("maxOvercount", (long) Math.ceil(Math.E * sketch.total() / sketch.width()));
+        view.put("top", top);
+        return view;
+    }
+
+    private void flagWriteHot() {
+        double window = windowSeconds();
+        synchronized (writeHot) {
+            Set<Long> hot = new HashSet<>();
+            for (long[] entry : writes.top(writes.capacity())) {
+                if (entry[1] / window > properties.getWriteHotRate()) {
+                    hot.add(entry[0]);
+                    if (!writeHot.contains(entry[0])) {
+                        logger.warn("Content ID {} is write-hot: {} updates/s, updates to it queue on its row lock",
+                                Long.valueOf(entry[0]), String.format(Locale.ROOT, "%.1f", entry[1] / window));
+                    }
+                }
+            }
+            writeHot.retainAll(hot);
+            writeHot.addAll(hot);
+        }
+    }
+
+    /**
+     * Effective length of the decayed window the counts cover
+     *
+     * @return seconds, at least one millisecond
+     */
+    private double windowSeconds() {
+        double interval = properties.getDecayInterval().toNanos() / 1e9;
+        double sinceDecay = (System.nanoTime() - lastDecayNanos) / 1e9;
+        return Math.max(0.001, sinceDecay + interval * (1 - Math.pow(0.5, decays)));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,191 @@
+package com.yiava.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiava.dto.ContentImportResponse;
+import com.yiava.dto.ContentRequest;
+import com.yiava.service.ContentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON or CSV records into the content table
+ *
+ * Records are parsed one at a time, validated with the same rules as a create request and
+ * inserted in multi-row batches; each batch is its own transaction, so at most one batch is
+ * held in memory regardless of the upload size. Invalid records are skipped and reported.
+ * If the import stops, its resume offset is the number of records already committed or
+ * reported, and passing it as the offset of a new import continues exactly there.
+ */
+@Service
+public class ContentImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentImporter.class);
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final ContentService contentService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+    private final Map<String, ImportProgress> imports = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> finished = new ConcurrentLinkedQueue<>();
+
+    public ContentImporter(ContentService contentService,
+                           Validator validator,
+                           ObjectMapper objectMapper,
+                           ImportProperties properties) {
+        this.contentService = contentService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Import every record of a stream
+     * Returns once the stream is exhausted or the import failed; progress is visible
+     * through {@link #progress(String)} meanwhile
+     *
+     * @param input the upload body
+     * @param charset the character set of the body
+     * @param format the record format
+     * @param offset number of records to skip, e.g. the resume offset of a failed import
+     * @param importId identifier to track the import under, null to generate one
+     * @return the final state of the import
+     * @throws IllegalArgumentException if the offset or id is invalid, or an import with that id is running
+     */
+    public ContentImportResponse importContent(InputStream input, Charset charset, ImportFormat format,
+                                               long offset, String importId) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        ImportProgress progress = register(importId == null || importId.isBlank()
+                ? UUID.randomUUID().toString() : importId.trim(), format, offset);
+        logger.info("Starting {} import {} at offset {}", format, progress.importId(), Long.valueOf(offset));
+
+        List<String> batch = new ArrayList<>(properties.getBatchSize());
+        long recordNumber = 0;
+        try {
+            Reader reader = new BufferedReader(new InputStreamReader(input, charset), 64 * 1024);
+            ImportRecordReader records = format == ImportFormat.NDJSON
+                    ? new NdjsonRecordReader(reader, objectMapper, properties.getMaxRecordChars())
+                    : new CsvRecordReader(reader, properties.getMaxRecordChars());
+
+            ImportRecord record;
+            while ((record = records.next()) != null) {
+                recordNumber++;
+                if (recordNumber <= offset) {
+                    continue;
+                }
+                progress.recordRead();
+                String error = record.error() != null ? record.error() : validate(record.content());
+                if (error != null) {
+                    progress.reject(recordNumber, record.line(), error);
+                } else {
+                    batch.add(record.content());
+                }
+                if (batch.size() >= properties.getBatchSize()) {
+                    flush(batch, progress, recordNumber);
+                }
+                if (progress.recordsRead() % properties.getProgressLogInterval() == 0) {
+                    logProgress(progress);
+                }
+            }
+            flush(batch, progress, recordNumber);
+            progress.complete();
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Import {} failed after record {}", progress.importId(), Long.valueOf(recordNumber), ex);
+            progress.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        } finally {
+            finished.add(progress.importId());
+            trimFinished();
+        }
+
+        ContentImportResponse result = progress.toResponse();
+        logger.info("Import {} {}: {} imported, {} rejected, {} rows/s", result.importId(), result.status(),
+                Long.valueOf(result.imported()), Long.valueOf(result.rejected()), Double.valueOf(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Progress of a running or recently finished import
+     *
+     * @param importId the import identifier
+     * @return the progress, or empty if unknown
+     */
+    public Optional<ContentImportResponse> progress(String importId) {
+        ImportProgress progress = imports.get(importId);
+        return progress == null ? Optional.empty() : Optional.of(progress.toResponse());
+    }
+
+    private ImportProgress register(String importId, ImportFormat format, long offset) {
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new IllegalArgumentException("Import ID must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        ImportProgress progress = new ImportProgress(importId, format, offset, properties.getMaxReportedErrors());
+        ImportProgress existing = imports.putIfAbsent(importId, progress);
+        if (existing != null) {
+            if (existing.isRunning() || !imports.replace(importId, existing, progress)) {
+                throw new IllegalArgumentException("Import " + importId + " is already running");
+            }
+            finished.remove(importId);
+        }
+        return progress;
+    }
+
+    private String validate(String content) {
+        Set<ConstraintViolation<ContentRequest>> violations = validator.validate(new ContentRequest(content));
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Insert and commit the pending batch, then advance the resume offset
+     */
+    private void flush(List<String> batch, ImportProgress progress, long throughRecord) {
+        int rows = batch.size();
+        if (rows > 0) {
+            contentService.createBatch(batch);
+            batch.clear();
+        }
+        progress.committed(rows, throughRecord);
+    }
+
+    private void logProgress(ImportProgress progress) {
+        ContentImportResponse view = progress.toResponse();
+        logger.info("Import {}: {} records read, {} imported, {} rejected, {} rows/s", view.importId(),
+                Long.valueOf(view.recordsRead()), Long.valueOf(view.imported()), Long.valueOf(view.rejected()),
+                Double.valueOf(view.rowsPerSecond()));
+    }
+
+    private void trimFinished() {
+        Iterator<String> oldest = finished.iterator();
+        while (finished.size() > properties.getRetainedImports() && oldest.hasNext()) {
+            String importId = oldest.next();
+            oldest.remove();
+            imports.computeIfPresent(importId, (id, progress) -> progress.isRunning() ? progress : null);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.yiava.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads CSV rows (RFC 4180: quoted fields may contain commas, doubled quotes and line breaks)
+ * If the first row has a column named "content" it is treated as a header and that column is
+ * imported; otherwise the first column of every row is.
+ */
+final class CsvRecordReader implements ImportRecordReader {
+
+    private static final String CONTENT_COLUMN = "content";
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private int contentColumn = -1;
+    private boolean eof;
+
+    CsvRecordReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        while (!eof) {
+            long startLine = lineNumber;
+            Row row = readRow();
+            if (row == null) {
+                return null;
+            }
+            if (contentColumn < 0) {
+                contentColumn = headerColumn(row.fields);
+                if (contentColumn >= 0) {
+                    continue;
+                }
+                contentColumn = 0;
+            }
+            if (row.error != null) {
+                return ImportRecord.failed(startLine, row.error);
+            }
+            if (row.fields.size() == 1 && row.fields.get(0).isEmpty()) {
+                // Blank line
+                continue;
+            }
+            if (row.fields.size() <= contentColumn) {
+                return ImportRecord.failed(startLine, "Row has no column " + (contentColumn + 1));
+            }
+            return ImportRecord.parsed(startLine, row.fields.get(contentColumn));
+        }
+        return null;
+    }
+
+    private static int headerColumn(List<String> fields) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (CONTENT_COLUMN.equals(fields.get(i).trim().toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read one row, consuming it completely even when it is rejected
+     */
+    private Row readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        int rowChars = 0;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        boolean any = false;
+        String error = null;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                    afterQuote = true;
+                    continue;
+                }
+                if (c == '\n') {
+                    lineNumber++;
+                }
+            } else if (c == '"') {
+                if (afterQuote) {
+                    // Doubled quote inside a quoted field
+                    quoted = true;
+                    afterQuote = false;
+                } else if (field.length() == 0) {
+                    quoted = true;
+                    continue;
+                } else if (error == null) {
+                    error = "Unexpected quote in unquoted field";
+                }
+            } else if (c == ',') {
+                // Separators count towards the limit too, so a row of commas cannot grow the field list unbounded
+                if (rowChars++ < maxRecordChars) {
+                    fields.add(field.toString());
+                } else if (error == null) {
+                    error = "Record exceeds " + maxRecordChars + " characters";
+                }
+                field.setLength(0);
+                afterQuote = false;
+                continue;
+            } else if (c == '\n') {
+                lineNumber++;
+                break;
+            } else if (c == '\r') {
+                continue;
+            } else if (afterQuote && error == null) {
+                error = "Unexpected character after closing quote";
+            }
+            if (rowChars++ < maxRecordChars) {
+                field.append((char) c);
+            } else if (error == null) {
+                error = "Record exceeds " + maxRecordChars + " characters";
+            }
+        }
+        if (c == -1) {
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            if (quoted && error == null) {
+                error = "Unterminated quoted field";
+            }
+        }
+        fields.add(field.toString());
+        return new Row(fields, error);
+    }
+
+    private record Row(List<String> fields, String error) {
+    }
+}
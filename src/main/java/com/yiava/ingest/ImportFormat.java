@@ -0,0 +1,54 @@
+package com.yiava.ingest;
+
+import java.util.Locale;
+
+/**
+ * Supported bulk import formats
+ */
+public enum ImportFormat {
+
+    /**
+     * One JSON object per line, shaped like a create request: {"content": "..."}
+     */
+    NDJSON,
+
+    /**
+     * Comma-separated values (RFC 4180 quoting); an optional header row names the "content" column
+     */
+    CSV;
+
+    /**
+     * Resolve the format from an explicit name, the media type or the file name, in that order
+     *
+     * @param name the requested format name, may be null
+     * @param mediaType the content type of the body or upload part, may be null
+     * @param filename the uploaded file name, may be null
+     * @return the format
+     * @throws IllegalArgumentException if none of them identifies a supported format
+     */
+    public static ImportFormat resolve(String name, String mediaType, String filename) {
+        if (name != null && !name.isBlank()) {
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "ndjson", "jsonl" -> NDJSON;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + name);
+            };
+        }
+        String type = mediaType == null ? "" : mediaType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/ndjson")
+                || type.startsWith("application/jsonl") || type.startsWith("application/x-jsonlines")) {
+            return NDJSON;
+        }
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        String file = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (file.endsWith(".ndjson") || file.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (file.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Cannot determine import format; use the 'format' parameter (ndjson or csv)");
+    }
+}
@@ -0,0 +1,100 @@
+package com.yiava.ingest;
+
+import com.yiava.dto.ContentImportResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Live state of one import
+ * Written by the importing thread, read by progress queries; reads take a consistent copy
+ */
+final class ImportProgress {
+
+    enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String importId;
+    private final ImportFormat format;
+    private final long startOffset;
+    private final int maxReportedErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    private final List<ContentImportResponse.RecordError> errors = new ArrayList<>();
+
+    private Status status = Status.RUNNING;
+    private long recordsRead;
+    private long imported;
+    private long rejected;
+    private long resumeOffset;
+    private long finishedNanos;
+    private LocalDateTime finishedAt;
+    private String failure;
+
+    ImportProgress(String importId, ImportFormat format, long startOffset, int maxReportedErrors) {
+        this.importId = importId;
+        this.format = format;
+        this.startOffset = startOffset;
+        this.maxReportedErrors = maxReportedErrors;
+        this.resumeOffset = startOffset;
+    }
+
+    String importId() {
+        return importId;
+    }
+
+    synchronized boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    synchronized long recordsRead() {
+        return recordsRead;
+    }
+
+    synchronized void recordRead() {
+        recordsRead++;
+    }
+
+    synchronized void reject(long record, long line, String message) {
+        rejected++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ContentImportResponse.RecordError(record, line, message));
+        }
+    }
+
+    /**
+     * Account for a committed batch
+     *
+     * @param rows the rows inserted by the batch
+     * @param throughRecord the last record number covered by the batch
+     */
+    synchronized void committed(int rows, long throughRecord) {
+        imported += rows;
+        resumeOffset = throughRecord;
+    }
+
+    synchronized void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    synchronized void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    synchronized ContentImportResponse toResponse() {
+        long elapsedNanos = (status == Status.RUNNING ? System.nanoTime() : finishedNanos) - startedNanos;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return new ContentImportResponse(importId, format.name().toLowerCase(Locale.ROOT), status.name(), startOffset,
+                recordsRead, imported, rejected, resumeOffset,
+                seconds > 0 ? Math.round(imported / seconds * 10) / 10.0 : 0,
+                elapsedNanos / 1_000_000, startedAt, finishedAt, failure, List.copyOf(errors));
+    }
+
+    private void finish(Status finalStatus, String message) {
+        status = finalStatus;
+        failure = message;
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,49 @@
+package com.yiava.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the streaming bulk import
+ * Bound from the yiava.import prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.import")
+public class ImportProperties {
+
+    /**
+     * Records per multi-row insert; each batch commits on its own
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest accepted record (NDJSON line or CSV row) in characters
+     * Longer records are rejected without being buffered
+     */
+    private int maxRecordChars = 65536;
+
+    /**
+     * Maximum number of per-record errors kept in the report; further errors are only counted
+     */
+    private int maxReportedErrors = 1000;
+
+    /**
+     * Number of finished imports whose progress stays queryable
+     */
+    private int retainedImports = 100;
+
+    /**
+     * Progress is logged every time this many records have been read
+     */
+    private int progressLogInterval = 100000;
+
+    public int getBatchSize() { return batchSize; }
+    public int getMaxRecordChars() { return maxRecordChars; }
+    public int getMaxReportedErrors() { return maxReportedErrors; }
+    public int getRetainedImports() { return retainedImports; }
+    public int getProgressLogInterval() { return progressLogInterval; }
+
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setMaxRecordChars(int maxRecordChars) { this.maxRecordChars = maxRecordChars; }
+    public void setMaxReportedErrors(int maxReportedErrors) { this.maxReportedErrors = maxReportedErrors; }
+    public void setRetainedImports(int retainedImports) { this.retainedImports = retainedImports; }
+    public void setProgressLogInterval(int progressLogInterval) { this.progressLogInterval = progressLogInterval; }
+}
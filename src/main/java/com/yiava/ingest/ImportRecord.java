@@ -0,0 +1,19 @@
+package com.yiava.ingest;
+
+/**
+ * One record read from an import stream
+ *
+ * @param line the line the record starts on, 1-based
+ * @param content the content text, null if the record could not be parsed
+ * @param error why the record could not be parsed, null if it was
+ */
+record ImportRecord(long line, String content, String error) {
+
+    static ImportRecord parsed(long line, String content) {
+        return new ImportRecord(line, content, null);
+    }
+
+    static ImportRecord failed(long line, String error) {
+        return new ImportRecord(line, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.yiava.ingest;
+
+import java.io.IOException;
+
+/**
+ * Reads records one at a time from an import stream
+ * Implementations hold at most one record in memory
+ */
+interface ImportRecordReader {
+
+    /**
+     * Read the next record
+     *
+     * @return the record, or null at the end of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    ImportRecord next() throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.yiava.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yiava.dto.ContentRequest;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads newline-delimited JSON, one create request per line
+ * Blank lines are skipped and do not count as records
+ */
+final class NdjsonRecordReader implements ImportRecordReader {
+
+    private final Reader reader;
+    private final ObjectMapper objectMapper;
+    private final int maxRecordChars;
+    private final StringBuilder line = new StringBuilder();
+    private long lineNumber;
+    private boolean eof;
+
+    NdjsonRecordReader(Reader reader, ObjectMapper objectMapper, int maxRecordChars) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        while (!eof) {
+            line.setLength(0);
+            lineNumber++;
+            boolean tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (line.length() < maxRecordChars) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (c == -1) {
+                eof = true;
+            }
+            if (tooLong) {
+                return ImportRecord.failed(lineNumber, "Record exceeds " + maxRecordChars + " characters");
+            }
+            String text = line.toString().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            try {
+                ContentRequest request = objectMapper.readValue(text, ContentRequest.class);
+                return ImportRecord.parsed(lineNumber, request.getContent());
+            } catch (JsonProcessingException ex) {
+                return ImportRecord.failed(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.yiava.mapper;
+
+import com.yiava.entity.ContentInvalidation;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * MyBatis Mapper interface for the content invalidation log
+ * Written in the same transaction as content writes, tailed by every node
+ */
+public interface ContentInvalidationMapper {
+
+    /**
+     * Append an invalidation for a content record
+     *
+     * @param contentId the id of the content record that changed
+     * @return the number of rows affected
+     */
+    int insert(@Param("contentId") Long contentId);
+
+    /**
+     * Append invalidations for several content records in one statement
+     *
+     * @param contentIds the ids of the content records that changed, must not be empty
+     * @return the number of rows affected
+     */
+    int insertBatch(@Param("contentIds") List<Long> contentIds);
+
+    /**
+     * Find log entries after a position, in id order
+     *
+     * @param afterId only entries with a greater id are returned
+     * @param limit maximum number of entries
+     * @return the log entries
+     */
+    List<ContentInvalidation> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Find specific log entries by id
+     * Used to re-check ids skipped by the tail because their transaction had not committed yet
+     *
+     * @param ids the log entry ids
+     * @return the entries that are now visible
+     */
+    List<ContentInvalidation> findByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Highest log entry id, or 0 when the log is empty
+     *
+     * @return the maximum id
+     */
+    long findMaxId();
+
+    /**
+     * Delete a batch of entries older than the retention period
+     * Their age is measured on the database clock, which also wrote createdAt
+     *
+     * @param retentionSeconds entries created more than this many seconds ago are deleted
+     * @param limit maximum number of entries deleted
+     * @return the number of rows affected
+     */
+    int deleteOlderThan(@Param("retentionSeconds") long retentionSeconds, @Param("limit") int limit);
+}
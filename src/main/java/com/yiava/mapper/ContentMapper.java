@@ -1,8 +1,12 @@
 package com.yiava.mapper;
 
 import com.yiava.entity.Content;
+import com.yiava.entity.ContentSize;
+import com.yiava.entity.ContentTombstone;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+
 /**
  * MyBatis Mapper interface for Content entity
  * Provides database operations for content records
@@ -17,6 +21,15 @@ public interface ContentMapper {
      */
     int insert(Content content);
 
+    /**
+     * Insert several content records in one statement
+     * Generated IDs are set on the entities
+     *
+     * @param contents the content entities to insert, must not be empty
+     * @return the number of rows affected
+     */
+    int insertBatch(java.util.List<Content> contents);
+
     /**
      * Find content by ID
      *
@@ -25,6 +38,49 @@ public interface ContentMapper {
      */
     Content findById(@Param("id") Long id);
 
+    /**
+     * Find content by ID and lock the row until the surrounding transaction ends
+     *
+     * @param id the content ID
+     * @return the content entity if found, null otherwise
+     */
+    Content findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Find only the validators of a content record
+     * Cheaper than findById when only the ETag or Last-Modified value is needed
+     *
+     * @param id the content ID
+     * @return a content entity with only id, version and updatedAt set, or null if not found
+     */
+    Content findValidatorById(@Param("id") Long id);
+
+    /**
+     * Find the version, creation time and length of a content record, without locking it
+     * Used to compute the statistics delta of a write that is then applied with a version check
+     *
+     * @param id the content ID
+     * @return the size, or null if not found
+     */
+    ContentSize findSizeById(@Param("id") Long id);
+
+    /**
+     * Find the version, creation time and length of a content record and lock the row until
+     * the transaction ends; sees the latest committed row, also under repeatable read
+     *
+     * @param id the content ID
+     * @return the size, or null if not found
+     */
+    ContentSize findSizeByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Find content records by a set of IDs in one query
+     *
+     * @param ids the content IDs, must not be empty
+     * @return the content entities found, in no particular order
+     */
+    java.util.List<Content> findByIds(@Param("ids") java.util.Collection<Long> ids);
+
     /**
      * Find all content records
      *
@@ -32,6 +88,51 @@ public interface ContentMapper {
      */
     java.util.List<Content> findAll();
 
+    /**
+     * Find the next page of content records in id order
+     * Keyset pagination: pass the last id of the previous page, or 0 for the first page
+     *
+     * @param afterId only records with a greater id are returned
+     * @param limit maximum number of records
+     * @return the content entities, in ascending id order
+     */
+    java.util.List<Content> findPageAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Find the next page of content records within an id range, in id order
+     * Keyset pagination like findPageAfter, bounded above so ranges can be scanned side by side
+     *
+     * @param afterId only records with a greater id are returned
+     * @param toId only records with this id or a smaller one are returned
+     * @param limit maximum number of records
+     * @return the content entities, in ascending id order
+     */
+    java.util.List<Content> findRangePage(@Param("afterId") long afterId, @Param("toId") long toId,
+                                          @Param("limit") int limit);
+
+    /**
+     * Find the smallest id of a live content record
+     *
+     * @return the id, or null if there is no content
+     */
+    Long findMinId();
+
+    /**
+     * Find the largest id of a live content record
+     *
+     * @return the id, or null if there is no content
+     */
+    Long findMaxId();
+
+    /**
+     * Find the first live content id at or after a position in the id space
+     * One index probe; used to sample how ids are spread before splitting a scan
+     *
+     * @param fromId the position
+     * @return the id, or null if no record has this id or a greater one
+     */
+    Long findIdAtOrAfter(@Param("fromId") long fromId);
+
     /**
      * Update content by ID
      *
@@ -41,6 +142,17 @@ public interface ContentMapper {
      */
     int updateById(@Param("id") Long id, @Param("content") String content);
 
+    /**
+     * Update content by ID only if its version matches
+     *
+     * @param id the content ID
+     * @param content the updated content text
+     * @param expectedVersion the version the caller last saw
+     * @return the number of rows affected, 0 if not found or the version changed
+     */
+    int updateByIdAndVersion(@Param("id") Long id, @Param("content") String content,
+                             @Param("expectedVersion") Long expectedVersion);
+
     /**
      * Delete content by ID
      *
@@ -50,9 +162,56 @@ public interface ContentMapper {
     int deleteById(@Param("id") Long id);
 
     /**
-     * Count total content records
+     * Mark content as deleted and bump its version
+     * The row is hidden from every other query and removed later by the tombstone purge
+     *
+     * @param id the content ID
+     * @return the number of rows affected, 0 if not found or already deleted
+     */
+    int softDeleteById(@Param("id") Long id);
+
+    /**
+     * Find tombstones deleted after a cursor, in (deletedAt, id) order
+     * Pass the deletedAt and id of the last tombstone seen to continue from it. The settle delay is
+     * measured on the database clock, which also wrote deletedAt.
+     *
+     * @param since only tombstones deleted at or after this time are returned
+     * @param afterId among tombstones deleted exactly at since, only greater ids are returned
+     * @param settleSeconds only tombstones deleted at least this many seconds ago are returned
+     * @param limit maximum number of tombstones
+     * @return the tombstones found
+     */
+    java.util.List<ContentTombstone> findTombstones(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+                                                    @Param("settleSeconds") long settleSeconds, @Param("limit") int limit);
+
+    /**
+     * Hard-delete tombstones older than the retention period, at most limit rows
+     * Their age is measured on the database clock, which also wrote deletedAt
+     *
+     * @param retentionSeconds tombstones deleted more than this many seconds ago are removed
+     * @param limit maximum number of rows to delete
+     * @return the number of rows deleted
+     */
+    int purgeTombstones(@Param("retentionSeconds") long retentionSeconds, @Param("limit") int limit);
+
+    /**
+     * Count tombstones not yet purged
+     *
+     * @return the tombstone count
+     */
+    long countTombstones();
+
+    /**
+     * Count live content records
      *
      * @return the total count
      */
     int count();
+
+    /**
+     * Read the database clock, the one CURRENT_TIMESTAMP defaults in content rows come from
+     *
+     * @return the current database time
+     */
+    LocalDateTime currentTimestamp();
 }
@@ -0,0 +1,97 @@
+package com.yiava.mapper;
+
+import com.yiava.entity.ContentStatsBucket;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MyBatis Mapper interface for the hourly content rollup
+ * Written in the same transaction as content writes
+ */
+public interface ContentStatsMapper {
+
+    /**
+     * Add deltas to a bucket slot, creating it if needed
+     *
+     * @param bucketStart the start of the hour
+     * @param slot the slot within the hour
+     * @param countDelta change in the number of records
+     * @param lengthDelta change in the total content length
+     * @return the number of rows affected
+     */
+    int upsert(@Param("bucketStart") LocalDateTime bucketStart,
+               @Param("slot") int slot,
+               @Param("countDelta") long countDelta,
+               @Param("lengthDelta") long lengthDelta);
+
+    /**
+     * Remove a content record this transaction just tombstoned from its bucket slot
+     * Bucket, slot and length are taken from the row itself, which the delete has already locked
+     *
+     * @param id the content ID
+     * @param slots the number of slots per hour
+     * @return the number of rows affected
+     */
+    int subtractTombstoned(@Param("id") Long id, @Param("slots") int slots);
+
+    /**
+     * Insert fully computed bucket slots (used by the backfill)
+     *
+     * @param buckets the bucket slots
+     * @return the number of rows affected
+     */
+    int insertBatch(@Param("buckets") List<ContentStatsBucket> buckets);
+
+    /**
+     * Sum the slots of every non-empty hour in a range, in time order
+     *
+     * @param from inclusive start
+     * @param to exclusive end
+     * @return one entry per hour
+     */
+    List<ContentStatsBucket> findRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Read the bucket slots of one hour
+     *
+     * @param bucketStart the start of the hour
+     * @return the stored slots, with their change times
+     */
+    List<ContentStatsBucket> findHour(@Param("bucketStart") LocalDateTime bucketStart);
+
+    /**
+     * Count the live content records created in a time range, per slot, straight from the content table
+     * Served by the created_at index
+     *
+     * @param from inclusive start
+     * @param to exclusive end
+     * @param slots the number of slots per hour
+     * @return one entry per non-empty slot, without bucket start
+     */
+    List<ContentStatsBucket> countContentBySlot(@Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("slots") int slots);
+
+    /**
+     * Lock every bucket slot, so content writes wait until the transaction ends
+     *
+     * @return the stored slots, with their change times
+     */
+    List<ContentStatsBucket> lockAll();
+
+    /**
+     * Count the stored bucket slots
+     *
+     * @return the number of rows
+     */
+    long countRows();
+
+    /**
+     * Delete every bucket slot
+     *
+     * @return the number of rows affected
+     */
+    int deleteAll();
+}
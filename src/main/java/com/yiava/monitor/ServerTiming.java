@@ -0,0 +1,145 @@
+package com.yiava.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-request latency breakdown, filled in by each layer and emitted as a Server-Timing header
+ *
+ * A context exists only on the request thread of a sampled request, between
+ * {@link ServerTimingFilter} opening and closing it; everywhere else {@link #record} is a
+ * ThreadLocal read and nothing more. Work done on other threads (batched findById queries)
+ * shows up only in the phase of the caller that waited for it.
+ *
+ * Phases used by this application:
+ * - conn: waiting for a pooled connection
+ * - sql: executing statements
+ * - map: MyBatis result mapping
+ * - svc: service calls made by the controller, including the three phases above
+ * - conv: entity to DTO conversion
+ * - ser: JSON serialization
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Open a context on the current thread
+     *
+     * @return the new context
+     */
+    static ServerTiming open() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Remove the context from the current thread
+     */
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Whether the current request is being timed
+     *
+     * @return true inside a sampled request
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Add a duration to a phase of the current request, if it is being timed
+     *
+     * @param phase the phase name
+     * @param nanos the duration
+     */
+    public static void record(String phase, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            long[] totals = timing.phases.computeIfAbsent(phase, key -> new long[2]);
+            totals[0] += nanos;
+            totals[1]++;
+        }
+    }
+
+    /**
+     * Run some work and record its duration under a phase
+     *
+     * @param phase the phase name
+     * @param work the work
+     * @return the result of the work
+     */
+    public static <T> T time(String phase, Supplier<T> work) {
+        if (CURRENT.get() == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Total nanoseconds recorded so far under a phase of the current request
+     *
+     * @param phase the phase name
+     * @return the total, 0 when not timed
+     */
+    static long total(String phase) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return 0;
+        }
+        long[] totals = timing.phases.get(phase);
+        return totals == null ? 0 : totals[0];
+    }
+
+    /**
+     * Recorded phases
+     *
+     * @return phase name to {total nanos, count}, in first-recorded order
+     */
+    Map<String, long[]> phases() {
+        return phases;
+    }
+
+    /**
+     * Nanoseconds since the context was opened
+     *
+     * @return the elapsed time
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Format the phases as a Server-Timing header value
+     *
+     * @param totalNanos the duration reported as the total phase
+     * @return the header value, durations in milliseconds
+     */
+    String headerValue(long totalNanos) {
+        StringBuilder header = new StringBuilder();
+        phases.forEach((phase, totals) -> {
+            header.append(String.format(Locale.ROOT, "%s;dur=%.3f", phase, totals[0] / 1_000_000.0));
+            if (totals[1] > 1) {
+                header.append(";desc=\"").append(totals[1]).append(" calls\"");
+            }
+            header.append(", ");
+        });
+        return header.append(String.format(Locale.ROOT, "total;dur=%.3f", totalNanos / 1_000_000.0)).toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.yiava.monitor;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+
+import java.sql.SQLException;
+
+/**
+ * Druid filter that records the time spent waiting for a pooled connection
+ * Records the conn phase of {@link ServerTiming}; Filter beans are added to the pool by the
+ * Druid starter
+ */
+public class ServerTimingDruidFilter extends FilterAdapter {
+
+    static final String CONN = "conn";
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                          long maxWaitMillis) throws SQLException {
+        if (!ServerTiming.isActive()) {
+            return super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+        }
+        long start = System.nanoTime();
+        try {
+            return super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+        } finally {
+            ServerTiming.record(CONN, System.nanoTime() - start);
+        }
+    }
+}
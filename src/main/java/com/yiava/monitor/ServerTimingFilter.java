@@ -0,0 +1,103 @@
+package com.yiava.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times sampled requests and adds their breakdown as a Server-Timing response header
+ *
+ * The body of a sampled response is buffered so the header can still be set after
+ * serialization, which is usually the phase in question; unsampled requests pass through
+ * untouched. Responses on the configured streaming paths are timed but never buffered, as
+ * they may be far larger than memory; they go without the header. Every phase of a sampled request is also recorded in the http.server.timing
+ * timer, tagged with the phase and the matched URI pattern.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final ServerTimingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ServerTimingFilter(ServerTimingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isSampled(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.open();
+        ContentCachingResponseWrapper buffered = isStreaming(request) ? null : new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            ServerTiming.close();
+            long totalNanos = timing.elapsedNanos();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, timing.headerValue(totalNanos));
+            }
+            if (buffered != null) {
+                buffered.copyBodyToResponse();
+            }
+            recordMetrics(request, timing, totalNanos);
+        }
+    }
+
+    private boolean isStreaming(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (String pattern : properties.getStreamingPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSampled(HttpServletRequest request) {
+        String forceHeader = properties.getForceHeader();
+        if (StringUtils.hasText(forceHeader) && request.getHeader(forceHeader) != null) {
+            return true;
+        }
+        double rate = properties.getSampleRate();
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void recordMetrics(HttpServletRequest request, ServerTiming timing, long totalNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        timing.phases().forEach((phase, totals) -> timer(request, uri, phase).record(totals[0], TimeUnit.NANOSECONDS));
+        timer(request, uri, "total").record(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(HttpServletRequest request, String uri, String phase) {
+        return Timer.builder("http.server.timing")
+                .description("Per-phase latency of sampled requests")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
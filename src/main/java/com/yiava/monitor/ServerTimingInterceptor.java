@@ -0,0 +1,48 @@
+package com.yiava.monitor;
+
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+
+/**
+ * MyBatis interceptor that splits statement time into execution and result mapping
+ * Records the sql and map phases of {@link ServerTiming}; does nothing outside a timed request
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class}),
+        @Signature(type = ResultSetHandler.class, method = "handleResultSets", args = {Statement.class})
+})
+public class ServerTimingInterceptor implements Interceptor {
+
+    static final String SQL = "sql";
+    static final String MAP = "map";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!ServerTiming.isActive()) {
+            return invocation.proceed();
+        }
+        boolean mapping = invocation.getTarget() instanceof ResultSetHandler;
+        long mappedBefore = mapping ? 0 : ServerTiming.total(MAP);
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (mapping) {
+                ServerTiming.record(MAP, nanos);
+            } else {
+                // Queries map their results inside StatementHandler.query; count that time only once
+                ServerTiming.record(SQL, nanos - (ServerTiming.total(MAP) - mappedBefore));
+            }
+        }
+    }
+}
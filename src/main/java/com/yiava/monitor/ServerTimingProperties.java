@@ -0,0 +1,45 @@
+package com.yiava.monitor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the per-request Server-Timing breakdown
+ * Bound from the yiava.server-timing prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.server-timing")
+public class ServerTimingProperties {
+
+    /**
+     * Whether the timing filter and hooks are registered
+     */
+    private boolean enabled = true;
+
+    /**
+     * Fraction of requests that are timed, between 0 and 1
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Requests carrying this header are always timed; empty to disable
+     */
+    private String forceHeader = "X-Server-Timing";
+
+    /**
+     * Ant-style paths, below the context path, whose responses stream and are never buffered
+     * Sampled requests to them are still timed, but get no Server-Timing header
+     */
+    private List<String> streamingPaths = new ArrayList<>(List.of("/content/export"));
+
+    public boolean isEnabled() { return enabled; }
+    public double getSampleRate() { return sampleRate; }
+    public String getForceHeader() { return forceHeader; }
+    public List<String> getStreamingPaths() { return streamingPaths; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    public void setForceHeader(String forceHeader) { this.forceHeader = forceHeader; }
+    public void setStreamingPaths(List<String> streamingPaths) { this.streamingPaths = streamingPaths; }
+}
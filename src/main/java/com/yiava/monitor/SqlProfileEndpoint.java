@@ -0,0 +1,60 @@
+package com.yiava.monitor;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the MyBatis statement profile
+ * Available at /actuator/sqlprofile, with /actuator/sqlprofile/{statementId} for a single statement
+ */
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfileEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Top-N statements by p99 latency, call count and cumulative time
+     *
+     * @param top optional number of entries per ranking
+     * @return the rankings
+     */
+    @ReadOperation
+    public Map<String, Object> profile(@Nullable Integer top) {
+        int limit = top != null ? top : profiler.getProperties().getTopN();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMillis", profiler.getProperties().getSlowThreshold().toMillis());
+        result.put("slowest", profiler.slowest(limit));
+        result.put("mostFrequent", profiler.mostFrequent(limit));
+        result.put("mostTime", profiler.mostTime(limit));
+        return result;
+    }
+
+    /**
+     * Statistics and last EXPLAIN for a single statement
+     *
+     * @param statementId the fully qualified statement id
+     * @return the snapshot, or null (404) if the statement has not run
+     */
+    @ReadOperation
+    public Map<String, Object> statement(@Selector String statementId) {
+        return profiler.statement(statementId);
+    }
+
+    /**
+     * Reset all collected statistics
+     */
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
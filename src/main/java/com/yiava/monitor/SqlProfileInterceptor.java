@@ -0,0 +1,171 @@
+package com.yiava.monitor;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MyBatis interceptor that profiles every mapped statement
+ * Records latency, rows returned or affected and bound parameter size per statement id,
+ * and captures a sampled EXPLAIN for SELECT statements slower than the configured threshold
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlProfileInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlProfileInterceptor.class);
+
+    private final SqlProfiler profiler;
+
+    public SqlProfileInterceptor(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Object parameter = args[1];
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = false;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failed = true;
+            throw ex;
+        } finally {
+            long micros = (System.nanoTime() - start) / 1000;
+            SqlStatementStats stats = profiler.statsFor(ms.getId(), ms.getSqlCommandType().name());
+            long paramBytes = parameterBytes(ms.getConfiguration(), boundSql, parameter);
+            stats.record(micros, rowsOf(result), boundSql.getParameterMappings().size(), paramBytes, failed);
+
+            if (!failed && ms.getSqlCommandType() == SqlCommandType.SELECT
+                    && micros >= profiler.getProperties().getSlowThreshold().toNanos() / 1000
+                    && stats.tryClaimExplain(System.currentTimeMillis(),
+                            profiler.getProperties().getExplainInterval().toMillis())) {
+                captureExplain((Executor) invocation.getTarget(), ms, boundSql, parameter, stats);
+            }
+        }
+    }
+
+    /**
+     * Run EXPLAIN for the slow statement on the connection the executor is already holding
+     * Failures are logged and swallowed so profiling never breaks the request
+     */
+    private void captureExplain(Executor executor, MappedStatement ms, BoundSql boundSql,
+                                Object parameter, SqlStatementStats stats) {
+        String sql = boundSql.getSql();
+        try {
+            Connection connection = executor.getTransaction().getConnection();
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                new DefaultParameterHandler(ms, parameter, boundSql).setParameters(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    List<Map<String, Object>> plan = new ArrayList<>();
+                    while (rs.next()) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            row.put(meta.getColumnLabel(i), rs.getObject(i));
+                        }
+                        plan.add(row);
+                    }
+                    stats.recordExplain(sql, plan);
+                }
+            }
+            logger.info("Captured EXPLAIN for slow statement {}", ms.getId());
+        } catch (Exception ex) {
+            logger.warn("Failed to capture EXPLAIN for statement {}: {}", ms.getId(), ex.getMessage());
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return result == null ? 0 : 1;
+    }
+
+    /**
+     * Approximate the size of the bound parameter values
+     * Mirrors the value resolution done by DefaultParameterHandler
+     */
+    private static long parameterBytes(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        if (mappings.isEmpty() || parameter == null) {
+            return 0;
+        }
+        MetaObject metaObject = null;
+        long bytes = 0;
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                value = metaObject.hasGetter(property) ? metaObject.getValue(property) : null;
+            }
+            bytes += sizeOf(value);
+        }
+        return bytes;
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length();
+        }
+        if (value instanceof byte[] raw) {
+            return raw.length;
+        }
+        return 8;
+    }
+}
@@ -0,0 +1,43 @@
+package com.yiava.monitor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the MyBatis statement profiler
+ * Bound from the yiava.sql-profile prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.sql-profile")
+public class SqlProfileProperties {
+
+    /**
+     * Whether the statement profiler interceptor is registered
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements slower than this are candidates for a sampled EXPLAIN
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Minimum interval between two EXPLAIN captures of the same statement
+     */
+    private Duration explainInterval = Duration.ofMinutes(5);
+
+    /**
+     * Default number of statements returned per ranking by the actuator endpoint
+     */
+    private int topN = 10;
+
+    public boolean isEnabled() { return enabled; }
+    public Duration getSlowThreshold() { return slowThreshold; }
+    public Duration getExplainInterval() { return explainInterval; }
+    public int getTopN() { return topN; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setSlowThreshold(Duration slowThreshold) { this.slowThreshold = slowThreshold; }
+    public void setExplainInterval(Duration explainInterval) { this.explainInterval = explainInterval; }
+    public void setTopN(int topN) { this.topN = topN; }
+}
@@ -0,0 +1,94 @@
+package com.yiava.monitor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory registry of per-statement SQL statistics
+ * Populated by {@link SqlProfileInterceptor} and read by {@link SqlProfileEndpoint}
+ */
+public class SqlProfiler {
+
+    private final ConcurrentHashMap<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final SqlProfileProperties properties;
+
+    public SqlProfiler(SqlProfileProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Get or create the statistics holder for a mapped statement
+     *
+     * @param statementId the fully qualified MyBatis statement id
+     * @param sqlCommandType SELECT, INSERT, UPDATE or DELETE
+     * @return the statistics holder
+     */
+    public SqlStatementStats statsFor(String statementId, String sqlCommandType) {
+        return statements.computeIfAbsent(statementId, key -> new SqlStatementStats(key, sqlCommandType));
+    }
+
+    /**
+     * Statements ranked by worst p99 latency
+     *
+     * @param limit maximum number of entries
+     * @return the snapshots, slowest first, with their last EXPLAIN
+     */
+    public List<Map<String, Object>> slowest(int limit) {
+        return rank(Comparator.comparingLong((SqlStatementStats s) -> s.percentileMicros(99))
+                .thenComparingDouble(SqlStatementStats::getMeanMicros), limit, true);
+    }
+
+    /**
+     * Statements ranked by number of executions
+     *
+     * @param limit maximum number of entries
+     * @return the snapshots, most frequent first
+     */
+    public List<Map<String, Object>> mostFrequent(int limit) {
+        return rank(Comparator.comparingLong(SqlStatementStats::getCalls), limit, false);
+    }
+
+    /**
+     * Statements ranked by cumulative time spent in the database
+     *
+     * @param limit maximum number of entries
+     * @return the snapshots, most expensive first
+     */
+    public List<Map<String, Object>> mostTime(int limit) {
+        return rank(Comparator.comparingLong(SqlStatementStats::getTotalMicros), limit, false);
+    }
+
+    /**
+     * Snapshot of a single statement including its last EXPLAIN
+     *
+     * @param statementId the statement id
+     * @return the snapshot, or null if the statement has not run yet
+     */
+    public Map<String, Object> statement(String statementId) {
+        SqlStatementStats stats = statements.get(statementId);
+        return stats == null ? null : stats.snapshot(true);
+    }
+
+    /**
+     * Drop all collected statistics
+     */
+    public void reset() {
+        statements.clear();
+    }
+
+    public SqlProfileProperties getProperties() {
+        return properties;
+    }
+
+    private List<Map<String, Object>> rank(Comparator<SqlStatementStats> comparator, int limit, boolean includePlan) {
+        return statements.values().stream()
+                .filter(s -> s.getCalls() > 0)
+                .sorted(comparator.reversed())
+                .limit(Math.max(limit, 0))
+                .map(s -> s.snapshot(includePlan))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,176 @@
+package com.yiava.monitor;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running statistics for a single MyBatis mapped statement
+ * Latency is kept in a fixed log2 histogram of microseconds so recording is
+ * lock-free and memory stays constant no matter how often the statement runs
+ */
+public class SqlStatementStats {
+
+    /**
+     * Bucket i holds latencies in [2^(i-1), 2^i) microseconds; the last bucket is open-ended
+     */
+    private static final int BUCKETS = 32;
+
+    private final String statementId;
+    private final String sqlCommandType;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final LongAdder totalParams = new LongAdder();
+    private final LongAdder totalParamBytes = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+    private final AtomicLong maxRows = new AtomicLong();
+    private final AtomicLong maxParamBytes = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final AtomicLong lastExplainAt = new AtomicLong();
+
+    private volatile String lastSlowSql;
+    private volatile List<Map<String, Object>> lastExplain;
+    private volatile Instant lastExplainTime;
+
+    public SqlStatementStats(String statementId, String sqlCommandType) {
+        this.statementId = statementId;
+        this.sqlCommandType = sqlCommandType;
+    }
+
+    /**
+     * Record one execution of the statement
+     *
+     * @param micros elapsed time in microseconds
+     * @param rows rows returned (queries) or affected (updates)
+     * @param params number of bound parameters
+     * @param paramBytes approximate size of the bound parameter values
+     * @param failed whether the execution threw
+     */
+    public void record(long micros, long rows, int params, long paramBytes, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        totalMicros.add(micros);
+        totalRows.add(rows);
+        totalParams.add(params);
+        totalParamBytes.add(paramBytes);
+        histogram.incrementAndGet(bucketOf(micros));
+        maxMicros.accumulateAndGet(micros, Math::max);
+        maxRows.accumulateAndGet(rows, Math::max);
+        maxParamBytes.accumulateAndGet(paramBytes, Math::max);
+    }
+
+    /**
+     * Claim the right to capture an EXPLAIN for this statement
+     * At most one caller wins per interval
+     *
+     * @param nowMillis current wall-clock time
+     * @param intervalMillis minimum interval between captures
+     * @return true if the caller should run EXPLAIN
+     */
+    public boolean tryClaimExplain(long nowMillis, long intervalMillis) {
+        long last = lastExplainAt.get();
+        if (last != 0 && nowMillis - last < intervalMillis) {
+            return false;
+        }
+        return lastExplainAt.compareAndSet(last, nowMillis);
+    }
+
+    /**
+     * Store the result of a sampled EXPLAIN
+     *
+     * @param sql the SQL text that was explained
+     * @param plan the EXPLAIN rows
+     */
+    public void recordExplain(String sql, List<Map<String, Object>> plan) {
+        this.lastSlowSql = sql;
+        this.lastExplain = plan;
+        this.lastExplainTime = Instant.now();
+    }
+
+    public String getStatementId() { return statementId; }
+    public long getCalls() { return calls.sum(); }
+    public long getTotalMicros() { return totalMicros.sum(); }
+
+    public double getMeanMicros() {
+        long n = calls.sum();
+        return n == 0 ? 0 : (double) totalMicros.sum() / n;
+    }
+
+    /**
+     * Approximate a latency percentile from the histogram
+     * Returns the upper bound of the bucket containing the requested rank
+     *
+     * @param percentile a value between 0 and 100
+     * @return the latency in microseconds
+     */
+    public long percentileMicros(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(1L << i, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Build a JSON-friendly snapshot of the current statistics
+     *
+     * @param includePlan whether the last captured EXPLAIN should be included
+     * @return the snapshot as an ordered map
+     */
+    public Map<String, Object> snapshot(boolean includePlan) {
+        long n = calls.sum();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("statement", statementId);
+        view.put("type", sqlCommandType);
+        view.put("calls", n);
+        view.put("errors", errors.sum());
+        view.put("totalMillis", totalMicros.sum() / 1000.0);
+        view.put("meanMillis", getMeanMicros() / 1000.0);
+        view.put("p50Millis", percentileMicros(50) / 1000.0);
+        view.put("p95Millis", percentileMicros(95) / 1000.0);
+        view.put("p99Millis", percentileMicros(99) / 1000.0);
+        view.put("maxMillis", maxMicros.get() / 1000.0);
+        view.put("meanRows", n == 0 ? 0 : (double) totalRows.sum() / n);
+        view.put("maxRows", maxRows.get());
+        view.put("meanParams", n == 0 ? 0 : (double) totalParams.sum() / n);
+        view.put("meanParamBytes", n == 0 ? 0 : (double) totalParamBytes.sum() / n);
+        view.put("maxParamBytes", maxParamBytes.get());
+        if (includePlan && lastExplain != null) {
+            Map<String, Object> plan = new LinkedHashMap<>();
+            plan.put("capturedAt", lastExplainTime);
+            plan.put("sql", lastSlowSql);
+            plan.put("rows", lastExplain);
+            view.put("explain", plan);
+        }
+        return view;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros <= 0) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.yiava.resilience;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+
+import java.sql.SQLException;
+
+/**
+ * Druid filter that gates connection requests on the circuit breaker
+ * While the breaker is open a request fails at once instead of waiting up to max-wait for
+ * the pool. Slow and failed waits are recorded as outcomes, so a saturated pool trips the
+ * breaker just like a failing database; the statements run on the connection report whether
+ * the database itself is healthy. Filter beans are added to the pool by the Druid starter.
+ */
+public class CircuitBreakerDruidFilter extends FilterAdapter {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public CircuitBreakerDruidFilter(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                          long maxWaitMillis) throws SQLException {
+        circuitBreaker.acquire();
+        long start = System.nanoTime();
+        try {
+            DruidPooledConnection connection = super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+            circuitBreaker.recordConnectionWait(System.nanoTime() - start, null);
+            return connection;
+        } catch (SQLException | RuntimeException ex) {
+            circuitBreaker.recordConnectionWait(System.nanoTime() - start, ex);
+            throw ex;
+        }
+    }
+}
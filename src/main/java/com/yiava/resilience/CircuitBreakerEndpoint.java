@@ -0,0 +1,45 @@
+package com.yiava.resilience;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the database circuit breaker
+ * Available at /actuator/circuitbreaker; DELETE forces the breaker closed
+ */
+@Component
+@Endpoint(id = "circuitbreaker")
+public class CircuitBreakerEndpoint {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final LastKnownGoodStore lastKnownGood;
+
+    public CircuitBreakerEndpoint(DatabaseCircuitBreaker circuitBreaker, LastKnownGoodStore lastKnownGood) {
+        this.circuitBreaker = circuitBreaker;
+        this.lastKnownGood = lastKnownGood;
+    }
+
+    /**
+     * Breaker state, window counts and stale store size
+     *
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> circuitBreaker() {
+        Map<String, Object> view = circuitBreaker.snapshot();
+        view.put("lastKnownGoodEntries", lastKnownGood.size());
+        return view;
+    }
+
+    /**
+     * Close the breaker and clear its window
+     */
+    @DeleteOperation
+    public void reset() {
+        circuitBreaker.reset();
+    }
+}
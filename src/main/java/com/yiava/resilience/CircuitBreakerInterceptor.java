@@ -0,0 +1,52 @@
+package com.yiava.resilience;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+/**
+ * MyBatis interceptor that reports the outcome and latency of every mapped statement to the
+ * circuit breaker
+ * Gating happens when a connection is requested, see {@link CircuitBreakerDruidFilter}, which also
+ * records failed connection requests; those are not counted a second time here
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public CircuitBreakerInterceptor(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            circuitBreaker.record(System.nanoTime() - start, null);
+            return result;
+        } catch (CannotGetJdbcConnectionException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            circuitBreaker.record(System.nanoTime() - start, ex);
+            throw ex;
+        }
+    }
+}
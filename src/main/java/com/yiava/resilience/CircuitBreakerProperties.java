@@ -0,0 +1,78 @@
+package com.yiava.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the database circuit breaker
+ * Bound from the yiava.circuit-breaker prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    /**
+     * Whether the breaker observes and gates database calls
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of most recent calls the failure and slow-call rates are computed over
+     */
+    private int windowSize = 100;
+
+    /**
+     * Calls needed in the window before the breaker may trip
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * Fraction of failed calls at which the breaker trips
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * Calls (statements or connection waits) taking longer than this count as slow
+     */
+    private Duration slowCallThreshold = Duration.ofSeconds(2);
+
+    /**
+     * Fraction of slow calls at which the breaker trips
+     */
+    private double slowCallRateThreshold = 0.8;
+
+    /**
+     * How long the breaker stays open before letting probe calls through
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Calls let through while half-open; all must succeed for the breaker to close
+     */
+    private int halfOpenProbes = 3;
+
+    /**
+     * Maximum number of recently read records kept for stale reads while the breaker is open
+     */
+    private int lastKnownGoodMaxEntries = 10000;
+
+    public boolean isEnabled() { return enabled; }
+    public int getWindowSize() { return windowSize; }
+    public int getMinimumCalls() { return minimumCalls; }
+    public double getFailureRateThreshold() { return failureRateThreshold; }
+    public Duration getSlowCallThreshold() { return slowCallThreshold; }
+    public double getSlowCallRateThreshold() { return slowCallRateThreshold; }
+    public Duration getOpenDuration() { return openDuration; }
+    public int getHalfOpenProbes() { return halfOpenProbes; }
+    public int getLastKnownGoodMaxEntries() { return lastKnownGoodMaxEntries; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+    public void setMinimumCalls(int minimumCalls) { this.minimumCalls = minimumCalls; }
+    public void setFailureRateThreshold(double failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+    public void setSlowCallThreshold(Duration slowCallThreshold) { this.slowCallThreshold = slowCallThreshold; }
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) { this.slowCallRateThreshold = slowCallRateThreshold; }
+    public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+    public void setHalfOpenProbes(int halfOpenProbes) { this.halfOpenProbes = halfOpenProbes; }
+    public void setLastKnownGoodMaxEntries(int lastKnownGoodMaxEntries) { this.lastKnownGoodMaxEntries = lastKnownGoodMaxEntries; }
+}
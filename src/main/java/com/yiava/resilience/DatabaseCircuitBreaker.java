@@ -0,0 +1,345 @@
+package com.yiava.resilience;
+
+import com.yiava.exception.DatabaseUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLSyntaxErrorException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker in front of the database
+ *
+ * Outcomes of statements and of slow or failed connection waits are kept in a window of the
+ * last window-size calls. Once the failure rate or the slow-call rate crosses its threshold the
+ * breaker opens: connection requests fail at once with {@link DatabaseUnavailableException} instead of
+ * queueing for the pool, so writes get a fast 503 and reads fall back to stale records.
+ * After open-duration it turns half-open and lets half-open-probes calls through; if they
+ * all succeed it closes, any failure opens it again. Only the first outcome of a thread holding
+ * a probe permit counts as a probe; calls admitted before the breaker opened do not.
+ * Probe permits that never report back (a connection taken but not used) are reissued after
+ * another open-duration.
+ *
+ * While the breaker is closed, outcomes go into a lock-free ring so statements do not share a
+ * monitor; the lock is only taken to change state and to count probes while not closed.
+ *
+ * Only infrastructure errors count as failures; constraint violations, bad data and SQL
+ * syntax errors are the caller's fault and count as successful round trips.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    /**
+     * Breaker states
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CircuitBreakerProperties properties;
+    private final long slowCallNanos;
+
+    private volatile State state = State.CLOSED;
+    /**
+     * Half-open period a thread's probe permit was issued in
+     */
+    private final ThreadLocal<Long> probePermit = new ThreadLocal<>();
+
+    private volatile Window window;
+    private long openedAtMillis;
+    private long halfOpenSinceMillis;
+    private long halfOpenPeriod;
+    private int probesIssued;
+    private int probeSuccesses;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder trips = new LongAdder();
+
+    public DatabaseCircuitBreaker(CircuitBreakerProperties properties) {
+        this.properties = properties;
+        this.slowCallNanos = properties.getSlowCallThreshold().toNanos();
+        this.window = new Window(Math.max(1, properties.getWindowSize()));
+    }
+
+    /**
+     * Ask to make a database call
+     * Free of locking while the breaker is closed
+     *
+     * @throws DatabaseUnavailableException if the breaker is open or out of probe permits
+     */
+    public void acquire() {
+        if (!properties.isEnabled() || state == State.CLOSED) {
+            return;
+        }
+        long retryAfterMillis;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long openMillis = properties.getOpenDuration().toMillis();
+            if (state == State.OPEN && now - openedAtMillis >= openMillis) {
+                halfOpen(now);
+            }
+            if (state == State.HALF_OPEN && probesIssued >= properties.getHalfOpenProbes()
+                    && now - halfOpenSinceMillis >= openMillis) {
+                halfOpen(now);
+            }
+            if (state == State.CLOSED) {
+                return;
+            }
+            if (state == State.HALF_OPEN && probesIssued < properties.getHalfOpenProbes()) {
+                probesIssued++;
+                probePermit.set(Long.valueOf(halfOpenPeriod));
+                return;
+            }
+            retryAfterMillis = state == State.OPEN
+                    ? openMillis - (now - openedAtMillis)
+                    : openMillis - (now - halfOpenSinceMillis);
+        }
+        rejected.increment();
+        throw new DatabaseUnavailableException("Database circuit breaker is " + state,
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    /**
+     * Record the outcome of a statement
+     *
+     * @param nanos how long the statement took
+     * @param error the exception it failed with, or null
+     */
+    public void record(long nanos, Throwable error) {
+        if (properties.isEnabled() && !rejectedByBreaker(error)) {
+            record(outcomeOf(nanos, error));
+        }
+    }
+
+    /**
+     * Record a wait for a pooled connection
+     * Only a slow or failed wait is an outcome: an idle connection is handed out without
+     * touching the database, so a fast checkout says nothing about its health.
+     *
+     * @param nanos how long the wait took
+     * @param error the exception it failed with, or null
+     */
+    public void recordConnectionWait(long nanos, Throwable error) {
+        if (properties.isEnabled() && !rejectedByBreaker(error)) {
+            byte outcome = outcomeOf(nanos, error);
+            if (outcome != SUCCESS) {
+                record(outcome);
+            }
+        }
+    }
+
+    /**
+     * Current state
+     *
+     * @return the state
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Force the breaker closed and clear its window
+     */
+    public synchronized void reset() {
+        close();
+    }
+
+    /**
+     * Breaker state for the actuator endpoint
+     *
+     * @return the snapshot
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Window current = window;
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.put("state", state.name());
+        view.put("windowCalls", current.recorded());
+        view.put("windowFailures", current.failures.get());
+        view.put("windowSlowCalls", current.slowCalls.get());
+        view.put("trips", trips.sum());
+        view.put("rejected", rejected.sum());
+        if (state != State.CLOSED) {
+            view.put("openedAt", Instant.ofEpochMilli(openedAtMillis).toString());
+        }
+        return view;
+    }
+
+    private void record(byte outcome) {
+        if (state != State.CLOSED && recordWhileNotClosed(outcome)) {
+            return;
+        }
+        Window current = window;
+        int recorded = current.add(outcome);
+        if (recorded >= properties.getMinimumCalls()) {
+            double failureRate = (double) current.failures.get() / recorded;
+            double slowRate = (double) current.slowCalls.get() / recorded;
+            if (failureRate >= properties.getFailureRateThreshold()) {
+                trip(current, String.format(Locale.ROOT, "failure rate %.0f%% over %d calls", failureRate * 100, recorded));
+            } else if (slowRate >= properties.getSlowCallRateThreshold()) {
+                trip(current, String.format(Locale.ROOT, "slow call rate %.0f%% over %d calls", slowRate * 100, recorded));
+            }
+        }
+    }
+
+    /**
+     * Count an outcome against the probes while the breaker is not closed
+     *
+     * @return false if the breaker closed in the meantime and the outcome belongs in the window
+     */
+    private synchronized boolean recordWhileNotClosed(byte outcome) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!takeProbePermit()) {
+                    // Admitted before the breaker opened, or not the probe's first statement
+                    return true;
+                }
+                if (outcome != SUCCESS) {
+                    open(outcome == FAILURE ? "probe failed" : "probe was slow");
+                } else if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                    close();
+                }
+                return true;
+            }
+            case OPEN -> {
+                // Calls that started before the breaker opened
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Open the breaker on the rates of a window, unless another thread already did
+     * or the window was cleared since
+     */
+    private synchronized void trip(Window tripped, String reason) {
+        if (state == State.CLOSED && window == tripped) {
+            open(reason);
+        }
+    }
+
+    /**
+     * Use up the calling thread's probe permit
+     *
+     * @return true if the thread held a permit of the current half-open period
+     */
+    private boolean takeProbePermit() {
+        Long period = probePermit.get();
+        if (period == null) {
+            return false;
+        }
+        probePermit.remove();
+        return period.longValue() == halfOpenPeriod;
+    }
+
+    private byte outcomeOf(long nanos, Throwable error) {
+        return isInfrastructureFailure(error) ? FAILURE : nanos >= slowCallNanos ? SLOW : SUCCESS;
+    }
+
+    private static boolean rejectedByBreaker(Throwable error) {
+        // Rejected by the breaker itself, not an outcome of the database
+        return error != null && DatabaseUnavailableException.causeOf(error) != null;
+    }
+
+    private void open(String reason) {
+        logger.warn("Database circuit breaker opened: {}; rejecting database calls for {}", reason, properties.getOpenDuration());
+        state = State.OPEN;
+        openedAtMillis = System.currentTimeMillis();
+        trips.increment();
+    }
+
+    private void halfOpen(long now) {
+        if (state == State.OPEN) {
+            logger.info("Database circuit breaker half-open, letting {} probe calls through",
+                    Integer.valueOf(properties.getHalfOpenProbes()));
+        }
+        state = State.HALF_OPEN;
+        halfOpenSinceMillis = now;
+        halfOpenPeriod++;
+        probesIssued = 0;
+        probeSuccesses = 0;
+    }
+
+    private void close() {
+        if (state != State.CLOSED) {
+            logger.info("Database circuit breaker closed");
+        }
+        // A new window rather than clearing the old one: late outcomes land in the discarded one
+        window = new Window(window.outcomes.length());
+        state = State.CLOSED;
+    }
+
+    private static boolean isInfrastructureFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof SQLDataException
+                    || cause instanceof SQLSyntaxErrorException) {
+                return false;
+            }
+            if (cause instanceof SQLException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Outcomes of the last calls, written without locking
+     * Each call claims the next slot and swaps its outcome in; the counts follow the swaps, so
+     * they always match the slots and a concurrent reader may only see them a few calls behind.
+     */
+    private static final class Window {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * Put an outcome in place of the oldest one
+         *
+         * @return the number of outcomes in the window, including this one
+         */
+        int add(byte outcome) {
+            long call = calls.getAndIncrement();
+            int previous = outcomes.getAndSet((int) (call % outcomes.length()), outcome);
+            if (previous == FAILURE) {
+                failures.decrementAndGet();
+            } else if (previous == SLOW) {
+                slowCalls.decrementAndGet();
+            }
+            if (outcome == FAILURE) {
+                failures.incrementAndGet();
+            } else if (outcome == SLOW) {
+                slowCalls.incrementAndGet();
+            }
+            return (int) Math.min(call + 1, outcomes.length());
+        }
+
+        int recorded() {
+            return (int) Math.min(calls.get(), outcomes.length());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.yiava.resilience;
+
+import com.yiava.entity.Content;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded copy of recently read content records, served as stale data while the database
+ * circuit breaker is open
+ *
+ * Unlike the near cache it is not kept coherent: writes on this node drop the record, writes
+ * on other nodes are not seen. Records are only served with a stale marker. Eviction is
+ * first-in first-out, like the near cache.
+ */
+@Component
+public class LastKnownGoodStore {
+
+    private final CircuitBreakerProperties properties;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Long> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+
+    public LastKnownGoodStore(CircuitBreakerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Remember a record read successfully
+     * Cheap for a record already held at the same version
+     *
+     * @param content the record, may be null
+     */
+    public void remember(Content content) {
+        if (!properties.isEnabled() || content == null || content.getId() == null) {
+            return;
+        }
+        Entry current = entries.get(content.getId());
+        if (current != null && current.content.getVersion() != null
+                && current.content.getVersion().equals(content.getVersion())) {
+            return;
+        }
+        if (entries.put(content.getId(), new Entry(copyOf(content), System.currentTimeMillis())) == null) {
+            insertionOrder.add(content.getId());
+            insertionOrderSize.incrementAndGet();
+        }
+        trim();
+    }
+
+    /**
+     * Drop a record this node is changing
+     *
+     * @param id the content ID
+     */
+    public void forget(Long id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Look up a remembered record
+     *
+     * @param id the content ID
+     * @return a copy of the record and when it was read, or null
+     */
+    public Entry get(Long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : new Entry(copyOf(entry.content), entry.readAtMillis);
+    }
+
+    /**
+     * Number of records held
+     *
+     * @return the size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void trim() {
+        int max = properties.getLastKnownGoodMaxEntries();
+        while (entries.size() > max || insertionOrderSize.get() > 2 * max) {
+            Long oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            entries.remove(oldest);
+        }
+    }
+
+    private static Content copyOf(Content content) {
+        Content copy = new Content(content.getId(), content.getContent(), content.getCreatedAt(), content.getUpdatedAt());
+        copy.setVersion(content.getVersion());
+        return copy;
+    }
+
+    /**
+     * A remembered record
+     *
+     * @param content the record
+     * @param readAtMillis when it was read from the database or a coherent cache
+     */
+    public record Entry(Content content, long readAtMillis) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.yiava.scan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yiava.dto.ContentResponse;
+import com.yiava.entity.Content;
+import com.yiava.exception.ServiceUnavailableException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes every live content record as newline-delimited JSON, in ascending id order
+ * One line per record in the shape of a single-record response, so an export can be fed back
+ * to the bulk import. The table is read with a parallel scan; each page is flushed as soon as
+ * it is written. Only max-concurrent-exports exports run at a time, as each holds scan threads
+ * and read-ahead pages for as long as its client takes to read.
+ */
+@Component
+public class ContentExporter {
+
+    private final ParallelContentScanner scanner;
+    private final ObjectWriter writer;
+    private final Semaphore exportSlots;
+
+    public ContentExporter(ParallelContentScanner scanner, ObjectMapper objectMapper, ScanProperties properties) {
+        this.scanner = scanner;
+        this.writer = objectMapper.writerFor(ContentResponse.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.exportSlots = new Semaphore(Math.max(1, properties.getMaxConcurrentExports()));
+    }
+
+    /**
+     * Export all records
+     *
+     * @param output the stream to write to; not closed
+     * @return the number of records written
+     * @throws IOException if writing fails, e.g. because the client went away
+     * @throws ServiceUnavailableException if max-concurrent-exports exports are already running
+     */
+    public long exportNdjson(OutputStream output) throws IOException {
+        if (!exportSlots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports are running, retry later", 5);
+        }
+        BufferedOutputStream buffered = new BufferedOutputStream(output, 64 * 1024);
+        try {
+            return scanner.forEachOrdered("export", scanner.defaultPageSize(), page -> {
+                try {
+                    for (Content content : page) {
+                        buffered.write(writer.writeValueAsBytes(new ContentResponse(
+                                content.getId(), content.getContent(), content.getCreatedAt(), content.getUpdatedAt())));
+                        buffered.write('\n');
+                    }
+                    buffered.flush();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            exportSlots.release();
+        }
+    }
+}
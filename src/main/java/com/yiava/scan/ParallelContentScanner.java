@@ -0,0 +1,456 @@
+package com.yiava.scan;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.yiava.entity.Content;
+import com.yiava.mapper.ContentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reads the whole content table as several id ranges side by side
+ *
+ * A scan first places range boundaries: the smallest and largest live id, plus index probes
+ * spread evenly between them, each returning the first id at or after its position. Range
+ * boundaries are taken at quantiles of the probed ids, so gaps in the id space do not produce
+ * empty ranges. Each range is read on a scan thread with its own keyset sub-queries. A scan
+ * keeps at most max-connections ranges in flight and starts the next one as the earliest
+ * finishes, so concurrent scans each make progress instead of queueing behind one another.
+ * Every sub-query takes one of max-connections permits shared by all scans and returns it
+ * when the page is read, so all scans together use at most max-connections connections and
+ * a reader waiting for a slow consumer holds none. There are several ranges per connection,
+ * which evens out ranges that turn out denser than the probes suggested.
+ *
+ * Results are either folded per range and combined in id order, or handed to one consumer
+ * page by page in id order; in that case each range reads at most buffer-pages ahead.
+ * Rows created after a scan starts may be missed, as with any keyset scan.
+ */
+@Component
+public class ParallelContentScanner implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelContentScanner.class);
+
+    /**
+     * Returned by a page buffer once its range is read; compared by identity
+     */
+    private static final List<Content> END_OF_RANGE = new ArrayList<>(0);
+
+    private final ContentMapper contentMapper;
+    private final ScanProperties properties;
+    private final int connections;
+    private final ExecutorService scanExecutor;
+    private final Semaphore connectionPermits;
+
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong rowsScanned = new AtomicLong();
+    private final Map<String, Map<String, Object>> lastRuns = new ConcurrentHashMap<>();
+
+    public ParallelContentScanner(ContentMapper contentMapper, ScanProperties properties, DataSource dataSource) {
+        this.contentMapper = contentMapper;
+        this.properties = properties;
+        int limit = properties.getMaxConnections();
+        DruidDataSource pool = druidPool(dataSource);
+        if (pool != null) {
+            limit = Math.min(limit, (int) (pool.getMaxActive() * properties.getMaxPoolUsage()));
+        }
+        this.connections = Math.max(1, limit);
+        if (properties.isEnabled() && connections > 1) {
+            AtomicInteger threadCount = new AtomicInteger();
+            // Threads are bounded per scan; connections are bounded by the permits
+            this.scanExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "content-scan-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.connectionPermits = new Semaphore(connections, true);
+        } else {
+            this.scanExecutor = null;
+            this.connectionPermits = null;
+        }
+    }
+
+    /**
+     * Whether scans are split into ranges and read concurrently
+     *
+     * @return true if scans run in parallel
+     */
+    public boolean isParallel() {
+        return scanExecutor != null;
+    }
+
+    /**
+     * Default rows per sub-query, for jobs without a page size of their own
+     *
+     * @return the page size
+     */
+    public int defaultPageSize() {
+        return properties.getPageSize();
+    }
+
+    /**
+     * Fold every live content record into a result
+     * Each range folds into its own partial result on a scan thread; the partial results are
+     * combined in id order on the calling thread
+     *
+     * @param job name of the job, for logging and the actuator endpoint
+     * @param pageSize rows per sub-query
+     * @param identity creates an empty partial result
+     * @param accumulator adds a record to a partial result
+     * @param combiner merges the later partial result into the earlier one
+     * @param <A> the result type
+     * @return the combined result
+     */
+    public <A> A aggregate(String job, int pageSize, Supplier<A> identity,
+                           BiConsumer<A, Content> accumulator, BinaryOperator<A> combiner) {
+        long started = System.nanoTime();
+        if (scanExecutor == null) {
+            A result = identity.get();
+            long rows = scanRange(ScanRange.ALL, pageSize, page -> page.forEach(content -> accumulator.accept(result, content)));
+            finished(job, 1, rows, started);
+            return result;
+        }
+
+        List<ScanRange> ranges = plan(connections * properties.getRangesPerConnection());
+        AtomicLong rows = new AtomicLong();
+        List<Future<A>> partials = new ArrayList<>(ranges.size());
+        A result = identity.get();
+        try {
+            for (int next = 0; next < ranges.size(); next++) {
+                if (next >= connections) {
+                    // Keep at most connections ranges of this scan in flight
+                    int done = next - connections;
+                    result = combiner.apply(result, await(partials.get(done)));
+                    partials.set(done, null);
+                }
+                ScanRange range = ranges.get(next);
+                partials.add(scanExecutor.submit(() -> {
+                    A partial = identity.get();
+                    rows.addAndGet(scanRange(range, pageSize, page -> page.forEach(content -> accumulator.accept(partial, content))));
+                    return partial;
+                }));
+            }
+            for (int done = Math.max(0, ranges.size() - connections); done < partials.size(); done++) {
+                result = combiner.apply(result, await(partials.get(done)));
+            }
+        } finally {
+            partials.forEach(partial -> {
+                if (partial != null) {
+                    partial.cancel(true);
+                }
+            });
+        }
+        finished(job, ranges.size(), rows.get(), started);
+        return result;
+    }
+
+    /**
+     * Hand every live content record to a consumer, page by page in ascending id order
+     * The consumer runs on the calling thread; ranges are read ahead concurrently
+     *
+     * @param job name of the job, for logging and the actuator endpoint
+     * @param pageSize rows per sub-query
+     * @param pageConsumer receives each page; an exception stops the scan
+     * @return the number of records scanned
+     */
+    public long forEachOrdered(String job, int pageSize, Consumer<List<Content>> pageConsumer) {
+        long started = System.nanoTime();
+        if (scanExecutor == null) {
+            long rows = scanRange(ScanRange.ALL, pageSize, pageConsumer);
+            finished(job, 1, rows, started);
+            return rows;
+        }
+
+        List<ScanRange> ranges = plan(connections * properties.getRangesPerConnection());
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<RangeBuffer> buffers = new ArrayList<>(ranges.size());
+        List<Future<?>> readers = new ArrayList<>(ranges.size());
+        long rows = 0;
+        try {
+            for (int next = 0; next < Math.min(connections, ranges.size()); next++) {
+                startReader(ranges.get(next), pageSize, cancelled, buffers, readers);
+            }
+            for (int current = 0; current < ranges.size(); current++) {
+                RangeBuffer buffer = buffers.get(current);
+                List<Content> page;
+                while ((page = buffer.take()) != END_OF_RANGE) {
+                    pageConsumer.accept(page);
+                    rows += page.size();
+                }
+                if (buffer.failure != null) {
+                    throw rethrow(buffer.failure);
+                }
+                // The consumer moved past a range; this scan may start reading another
+                if (current + connections < ranges.size()) {
+                    startReader(ranges.get(current + connections), pageSize, cancelled, buffers, readers);
+                }
+            }
+        } finally {
+            cancelled.set(true);
+            readers.forEach(reader -> reader.cancel(true));
+        }
+        finished(job, ranges.size(), rows, started);
+        return rows;
+    }
+
+    /**
+     * Split the live id space into ranges holding roughly the same number of records
+     * May return fewer ranges than asked for when there are few distinct ids
+     *
+     * @param rangeCount the number of ranges wanted
+     * @return the ranges in ascending id order, empty if there is no content
+     */
+    public List<ScanRange> plan(int rangeCount) {
+        Long min = contentMapper.findMinId();
+        Long max = contentMapper.findMaxId();
+        if (min == null || max == null) {
+            return List.of();
+        }
+        if (rangeCount <= 1 || max - min < rangeCount) {
+            return List.of(new ScanRange(min - 1, max));
+        }
+
+        TreeSet<Long> sample = new TreeSet<>();
+        sample.add(min);
+        sample.add(max);
+        int probes = Math.max(rangeCount, properties.getSampleSize());
+        double width = (double) (max - min);
+        for (int i = 1; i < probes; i++) {
+            Long id = contentMapper.findIdAtOrAfter(min + (long) (width * i / probes));
+            if (id != null) {
+                sample.add(id);
+            }
+        }
+
+        List<Long> points = new ArrayList<>(sample);
+        List<ScanRange> ranges = new ArrayList<>(rangeCount);
+        long from = min - 1;
+        for (int r = 1; r < rangeCount; r++) {
+            long split = points.get((int) ((long) r * points.size() / rangeCount));
+            if (split > from && split < max) {
+                ranges.add(new ScanRange(from, split));
+                from = split;
+            }
+        }
+        ranges.add(new ScanRange(from, max));
+        return ranges;
+    }
+
+    /**
+     * Scan configuration and the last run of each job, for the actuator endpoint
+     *
+     * @return the snapshot
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.put("parallel", isParallel());
+        view.put("connections", connections);
+        view.put("connectionsInUse", connectionPermits == null ? 0 : connections - connectionPermits.availablePermits());
+        view.put("rangesPerConnection", properties.getRangesPerConnection());
+        view.put("scans", scans.get());
+        view.put("rowsScanned", rowsScanned.get());
+        view.put("lastRuns", new LinkedHashMap<>(lastRuns));
+        return view;
+    }
+
+    @Override
+    public void destroy() {
+        if (scanExecutor != null) {
+            scanExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read one range with keyset sub-queries
+     *
+     * @return the number of records read
+     */
+    private long scanRange(ScanRange range, int pageSize, Consumer<List<Content>> pageConsumer) {
+        long afterId = range.afterId();
+        long rows = 0;
+        List<Content> page;
+        do {
+            page = readPage(afterId, range.toId(), pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            rows += page.size();
+            pageConsumer.accept(page);
+        } while (page.size() == pageSize);
+        return rows;
+    }
+
+    /**
+     * Read one page, holding a connection permit only for the query itself
+     */
+    private List<Content> readPage(long afterId, long toId, int pageSize) {
+        if (connectionPermits == null) {
+            return contentMapper.findRangePage(afterId, toId, pageSize);
+        }
+        try {
+            connectionPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Scan cancelled");
+        }
+        try {
+            return contentMapper.findRangePage(afterId, toId, pageSize);
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    /**
+     * Start reading a range of an ordered scan ahead into a new buffer
+     */
+    private void startReader(ScanRange range, int pageSize, AtomicBoolean cancelled,
+                             List<RangeBuffer> buffers, List<Future<?>> readers) {
+        RangeBuffer buffer = new RangeBuffer(properties.getBufferPages());
+        buffers.add(buffer);
+        readers.add(scanExecutor.submit(() -> readAhead(range, pageSize, buffer, cancelled)));
+    }
+
+    /**
+     * Scan-thread side of an ordered scan: read a range into its buffer, then mark its end
+     */
+    private void readAhead(ScanRange range, int pageSize, RangeBuffer buffer, AtomicBoolean cancelled) {
+        try {
+            scanRange(range, pageSize, page -> {
+                if (!buffer.offer(page, cancelled)) {
+                    throw new CancellationException("Scan cancelled");
+                }
+            });
+        } catch (RuntimeException | Error ex) {
+            // Also a cancellation, e.g. an interrupt on shutdown, so the consumer does not wait for pages that never come
+            buffer.failure = ex;
+        } finally {
+            buffer.finished = true;
+        }
+    }
+
+    private void finished(String job, int ranges, long rows, long startedNanos) {
+        long millis = (System.nanoTime() - startedNanos) / 1_000_000;
+        scans.incrementAndGet();
+        rowsScanned.addAndGet(rows);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", LocalDateTime.now().toString());
+        run.put("ranges", ranges);
+        run.put("rows", rows);
+        run.put("millis", millis);
+        lastRuns.put(job, run);
+        logger.info("Scan {} read {} content records in {} ranges on up to {} connections in {} ms", job,
+                Long.valueOf(rows), Integer.valueOf(ranges), Integer.valueOf(scanExecutor == null ? 1 : connections),
+                Long.valueOf(millis));
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning content", ex);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Content scan failed", failure);
+    }
+
+    private static DruidDataSource druidPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DruidDataSource.class) ? dataSource.unwrap(DruidDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Pages of one range read ahead of the consumer
+     */
+    private static final class RangeBuffer {
+
+        private final BlockingQueue<List<Content>> pages;
+        private volatile Throwable failure;
+        private volatile boolean finished;
+
+        private RangeBuffer(int capacity) {
+            this.pages = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        /**
+         * Wait for room in the buffer
+         *
+         * @return false if the scan was cancelled first
+         */
+        private boolean offer(List<Content> page, AtomicBoolean cancelled) {
+            try {
+                while (!cancelled.get()) {
+                    if (pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        /**
+         * Next page of the range, or END_OF_RANGE once the reader has finished, also if it failed
+         */
+        private List<Content> take() {
+            try {
+                while (true) {
+                    // Read before polling: every page the reader offered is queued by the time it finishes
+                    boolean done = finished;
+                    List<Content> page = pages.poll(done ? 0 : 100, TimeUnit.MILLISECONDS);
+                    if (page != null) {
+                        return page;
+                    }
+                    if (done) {
+                        return END_OF_RANGE;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while scanning content", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yiava.scan;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for parallel range-partitioned table scans
+ * Bound from the yiava.scan prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.scan")
+public class ScanProperties {
+
+    /**
+     * Whether full-table jobs scan id ranges concurrently; when false they run one keyset scan
+     * on the calling thread
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum connections all running scans use together; one scan thread per connection
+     */
+    private int maxConnections = 4;
+
+    /**
+     * Upper bound on the share of the pool's connections the scan threads may hold, so
+     * requests keep enough connections; caps max-connections
+     */
+    private double maxPoolUsage = 0.5;
+
+    /**
+     * Ranges per scan thread; more and smaller ranges even out skew in how rows are spread
+     * over the id space
+     */
+    private int rangesPerConnection = 4;
+
+    /**
+     * Number of index probes used to place range boundaries
+     */
+    private int sampleSize = 128;
+
+    /**
+     * Rows read per keyset sub-query by jobs without a page size of their own (export, count)
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Pages a range may read ahead of an ordered consumer before its thread waits
+     */
+    private int bufferPages = 4;
+
+    /**
+     * Exports that may run at the same time; further export requests get 503 Service Unavailable
+     * Each holds up to max-connections scan threads and their read-ahead pages
+     */
+    private int maxConcurrentExports = 2;
+
+    public boolean isEnabled() { return enabled; }
+    public int getMaxConnections() { return maxConnections; }
+    public double getMaxPoolUsage() { return maxPoolUsage; }
+    public int getRangesPerConnection() { return rangesPerConnection; }
+    public int getSampleSize() { return sampleSize; }
+    public int getPageSize() { return pageSize; }
+    public int getBufferPages() { return bufferPages; }
+    public int getMaxConcurrentExports() { return maxConcurrentExports; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+    public void setMaxPoolUsage(double maxPoolUsage) { this.maxPoolUsage = maxPoolUsage; }
+    public void setRangesPerConnection(int rangesPerConnection) { this.rangesPerConnection = rangesPerConnection; }
+    public void setSampleSize(int sampleSize) { this.sampleSize = sampleSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+    public void setBufferPages(int bufferPages) { this.bufferPages = bufferPages; }
+    public void setMaxConcurrentExports(int maxConcurrentExports) { this.maxConcurrentExports = maxConcurrentExports; }
+}
@@ -0,0 +1,15 @@
+package com.yiava.scan;
+
+/**
+ * A slice of the content id space read by one scan task
+ *
+ * @param afterId ids greater than this are in the range
+ * @param toId ids up to and including this are in the range
+ */
+public record ScanRange(long afterId, long toId) {
+
+    /**
+     * The whole id space, for a scan that is not split
+     */
+    public static final ScanRange ALL = new ScanRange(0, Long.MAX_VALUE);
+}
@@ -0,0 +1,51 @@
+package com.yiava.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the findById micro-batcher
+ * Bound from the yiava.batch-loader prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.batch-loader")
+public class BatchLoaderProperties {
+
+    /**
+     * Whether concurrent findById calls are coalesced into IN queries
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the first request of a batch waits for others to join
+     */
+    private Duration window = Duration.ofNanos(500_000);
+
+    /**
+     * Maximum number of ids per IN query; a full batch is dispatched immediately
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Maximum number of batch queries running at once, and so of connections used by this path
+     */
+    private int maxConcurrentBatches = 4;
+
+    /**
+     * Bound on the statement part of a caller's wait when the pool sets no query timeout;
+     * the batch window and the pool's max-wait are added to it
+     */
+    private Duration awaitTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() { return enabled; }
+    public Duration getWindow() { return window; }
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public int getMaxConcurrentBatches() { return maxConcurrentBatches; }
+    public Duration getAwaitTimeout() { return awaitTimeout; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setWindow(Duration window) { this.window = window; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+    public void setMaxConcurrentBatches(int maxConcurrentBatches) { this.maxConcurrentBatches = maxConcurrentBatches; }
+    public void setAwaitTimeout(Duration awaitTimeout) { this.awaitTimeout = awaitTimeout; }
+}
@@ -0,0 +1,271 @@
+package com.yiava.service;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.yiava.entity.Content;
+import com.yiava.mapper.ContentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataLoader-style batcher for content lookups by ID
+ *
+ * Concurrent callers enqueue ids; a collector thread groups them for up to the configured
+ * window or until the batch is full, then one SELECT ... WHERE id IN (...) runs on a bounded
+ * pool and each caller's future is completed with its row. Callers asking for an id that is
+ * already in flight share the same future. Waits are bounded, and lookups still pending when
+ * the loader shuts down are failed.
+ */
+@Component
+public class ContentBatchLoader implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentBatchLoader.class);
+
+    private final ContentMapper contentMapper;
+    private final BatchLoaderProperties properties;
+    private final long awaitTimeoutMillis;
+    private final ConcurrentHashMap<Long, CompletableFuture<Content>> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService batchExecutor;
+    private final Thread collector;
+
+    private volatile boolean running = true;
+
+    public ContentBatchLoader(ContentMapper contentMapper, BatchLoaderProperties properties, DataSource dataSource) {
+        this.contentMapper = contentMapper;
+        this.properties = properties;
+        this.awaitTimeoutMillis = awaitTimeoutMillis(properties, druidPool(dataSource));
+        if (properties.isEnabled()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.batchExecutor = Executors.newFixedThreadPool(properties.getMaxConcurrentBatches(), runnable -> {
+                Thread thread = new Thread(runnable, "content-batch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.collector = new Thread(this::collect, "content-batch-collector");
+            this.collector.setDaemon(true);
+            this.collector.start();
+        } else {
+            this.batchExecutor = null;
+            this.collector = null;
+        }
+    }
+
+    /**
+     * Whether lookups should go through the batcher
+     * Callers inside a transaction read directly so they see their own uncommitted writes
+     *
+     * @return true if the batcher should be used for the current thread
+     */
+    public boolean isApplicable() {
+        return properties.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Request a content record by ID
+     *
+     * @param id the content ID
+     * @return a future completed with the record, or with null if it does not exist
+     */
+    public CompletableFuture<Content> load(Long id) {
+        CompletableFuture<Content> existing = inFlight.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Content> created = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            return existing;
+        }
+        if (!running) {
+            inFlight.remove(id, created);
+            created.completeExceptionally(shutDown());
+            return created;
+        }
+        queue.add(new Pending(id, created));
+        if (!running) {
+            failPending();
+        }
+        return created;
+    }
+
+    /**
+     * Wait for a requested record on the calling thread
+     * The wait is bounded by the batch window, the pool's max-wait and the query timeout; on
+     * expiry the lookup is failed for every caller sharing it, so later callers start afresh
+     *
+     * @param id the content ID passed to load
+     * @param future the future returned by load
+     * @return the record, or null if it does not exist
+     */
+    public Content await(Long id, CompletableFuture<Content> future) {
+        try {
+            return future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading content", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to load content", ex.getCause());
+        } catch (TimeoutException ex) {
+            RuntimeException timeout = new RuntimeException(
+                    "Timed out after " + awaitTimeoutMillis + " ms loading content with ID: " + id, ex);
+            inFlight.remove(id, future);
+            future.completeExceptionally(timeout);
+            throw timeout;
+        }
+    }
+
+    /**
+     * Stop sharing an in-flight lookup once the surrounding write commits
+     * Later callers start a fresh query instead of joining one that may predate the write
+     *
+     * @param id the content ID that changed
+     */
+    public void forgetAfterCommit(Long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inFlight.remove(id);
+                }
+            });
+        } else {
+            inFlight.remove(id);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+            batchExecutor.shutdown();
+        }
+        failPending();
+    }
+
+    /**
+     * Fail every lookup not yet answered, so no caller waits on a stopped loader
+     */
+    private void failPending() {
+        RuntimeException shutDown = shutDown();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(shutDown);
+        }
+        inFlight.forEach((id, future) -> {
+            inFlight.remove(id, future);
+            future.completeExceptionally(shutDown);
+        });
+    }
+
+    private static RuntimeException shutDown() {
+        return new IllegalStateException("Content batch loader is shut down");
+    }
+
+    /**
+     * Longest a caller waits for a batched lookup: the batch window, then the wait for a
+     * connection and the statement itself, each as bounded by the pool
+     */
+    private static long awaitTimeoutMillis(BatchLoaderProperties properties, DruidDataSource pool) {
+        long millis = properties.getWindow().toMillis() + 1;
+        long queryTimeoutSeconds = pool != null ? pool.getQueryTimeout() : 0;
+        millis += queryTimeoutSeconds > 0 ? queryTimeoutSeconds * 1000 : properties.getAwaitTimeout().toMillis();
+        if (pool != null && pool.getMaxWait() > 0) {
+            millis += pool.getMaxWait();
+        }
+        return millis;
+    }
+
+    private static DruidDataSource druidPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DruidDataSource.class) ? dataSource.unwrap(DruidDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    private void collect() {
+        long windowNanos = properties.getWindow().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+        while (running) {
+            try {
+                List<Pending> batch = new ArrayList<>(maxBatchSize);
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batchExecutor.execute(() -> execute(batch));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                logger.error("Content batch collector failed", ex);
+            }
+        }
+    }
+
+    private void execute(List<Pending> batch) {
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            ids.add(pending.id);
+        }
+        try {
+            List<Content> rows = contentMapper.findByIds(ids);
+            Map<Long, Content> byId = new HashMap<>(rows.size() * 2);
+            for (Content row : rows) {
+                byId.put(row.getId(), row);
+            }
+            for (Pending pending : batch) {
+                inFlight.remove(pending.id, pending.future);
+                pending.future.complete(byId.get(pending.id));
+            }
+            logger.debug("Loaded {} of {} content records in one batch",
+                    Integer.valueOf(rows.size()), Integer.valueOf(ids.size()));
+        } catch (RuntimeException ex) {
+            for (Pending pending : batch) {
+                inFlight.remove(pending.id, pending.future);
+                pending.future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private record Pending(Long id, CompletableFuture<Content> future) {
+    }
+}
@@ -1,15 +1,36 @@
 package com.yiava.service;
 
+import com.yiava.cache.ContentNearCache;
+import com.yiava.dto.ContentEditOperation;
 import com.yiava.entity.Content;
+import com.yiava.entity.ContentSize;
+import com.yiava.entity.ContentTombstone;
+import com.yiava.exception.ConflictException;
+import com.yiava.exception.PreconditionFailedException;
+import com.yiava.hotkey.HotKeyTracker;
+import com.yiava.mapper.ContentInvalidationMapper;
 import com.yiava.mapper.ContentMapper;
+import com.yiava.resilience.LastKnownGoodStore;
+import com.yiava.stats.ContentStatsService;
+import com.yiava.store.LocalContentStore;
+import com.yiava.tombstone.TombstoneProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer for Content business logic
@@ -21,10 +42,44 @@ public class ContentService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContentService.class);
 
+    /**
+     * Attempts of a version-checked write without If-Match before it gives up with 409 Conflict
+     */
+    private static final int UNCONDITIONAL_WRITE_ATTEMPTS = 3;
+
+    /**
+     * Maximum number of IDs accepted by a single multi-get
+     */
+    public static final int MAX_IDS_PER_REQUEST = 500;
+
     private final ContentMapper contentMapper;
+    private final ContentInvalidationMapper invalidationMapper;
+    private final ContentNearCache nearCache;
+    private final ContentBatchLoader batchLoader;
+    private final ContentStatsService statsService;
+    private final LocalContentStore localStore;
+    private final TombstoneProperties tombstoneProperties;
+    private final HotKeyTracker hotKeys;
+    private final LastKnownGoodStore lastKnownGood;
 
-    public ContentService(ContentMapper contentMapper) {
+    public ContentService(ContentMapper contentMapper,
+                          ContentInvalidationMapper invalidationMapper,
+                          ContentNearCache nearCache,
+                          ContentBatchLoader batchLoader,
+                          ContentStatsService statsService,
+                          LocalContentStore localStore,
+                          TombstoneProperties tombstoneProperties,
+                          HotKeyTracker hotKeys,
+                          LastKnownGoodStore lastKnownGood) {
         this.contentMapper = contentMapper;
+        this.invalidationMapper = invalidationMapper;
+        this.nearCache = nearCache;
+        this.batchLoader = batchLoader;
+        this.statsService = statsService;
+        this.localStore = localStore;
+        this.tombstoneProperties = tombstoneProperties;
+        this.hotKeys = hotKeys;
+        this.lastKnownGood = lastKnownGood;
     }
 
     /**
@@ -48,45 +103,220 @@ public class ContentService {
             throw new IllegalArgumentException("Content must not exceed 5000 characters");
         }
 
-        // Create and save content
+        // Create and save content; timestamps are set here so the statistics bucket is known. They come
+        // from the database clock, like updated_at of later updates, so Last-Modified never goes backwards
+        LocalDateTime now = contentMapper.currentTimestamp().truncatedTo(ChronoUnit.SECONDS);
         Content content = new Content(contentText);
+        content.setCreatedAt(now);
+        content.setUpdatedAt(now);
         int rowsAffected = contentMapper.insert(content);
 
         if (rowsAffected == 0) {
             logger.error("Failed to insert content into database");
             throw new RuntimeException("Failed to create content");
         }
+        content.setVersion(0L);
+        statsService.recordCreate(content);
+        // Logged like any other write: the local store of another node may be enabled even if this one's is not
+        invalidate(content.getId());
+        localStore.applyAfterCommit(content);
 
         logger.info("Successfully created content with ID: {}", content.getId());
         return content;
     }
 
+    /**
+     * Create several content records in one transaction with a single multi-row insert
+     * Used by the bulk import; callers validate the texts beforehand
+     *
+     * @param contentTexts the text contents to store
+     * @return the created content entities with generated IDs, in input order
+     * @throws IllegalArgumentException if a content is invalid
+     */
+    public List<Content> createBatch(List<String> contentTexts) {
+        if (contentTexts.isEmpty()) {
+            return List.of();
+        }
+        logger.debug("Creating {} content records in one batch", Integer.valueOf(contentTexts.size()));
+
+        // Database clock, as for a single create
+        LocalDateTime now = contentMapper.currentTimestamp().truncatedTo(ChronoUnit.SECONDS);
+        List<Content> contents = new ArrayList<>(contentTexts.size());
+        for (String contentText : contentTexts) {
+            if (!StringUtils.hasText(contentText) || contentText.length() > 5000) {
+                throw new IllegalArgumentException("Content must be non-empty and not exceed 5000 characters");
+            }
+            Content content = new Content(contentText);
+            content.setCreatedAt(now);
+            content.setUpdatedAt(now);
+            content.setVersion(0L);
+            contents.add(content);
+        }
+
+        int rowsAffected = contentMapper.insertBatch(contents);
+        if (rowsAffected != contents.size()) {
+            logger.error("Batch insert affected {} of {} rows", Integer.valueOf(rowsAffected), Integer.valueOf(contents.size()));
+            throw new RuntimeException("Failed to create content batch");
+        }
+        statsService.recordCreates(contents);
+
+        if (nearCache.isEnabled()) {
+            // Other nodes' local stores learn about new ids from the invalidation log
+            List<Long> ids = new ArrayList<>(contents.size());
+            contents.forEach(content -> ids.add(content.getId()));
+            invalidationMapper.insertBatch(ids);
+        }
+        contents.forEach(localStore::applyAfterCommit);
+        return contents;
+    }
+
     /**
      * Find content by ID
+     * Served from the near cache or the local store when possible; misses from concurrent
+     * callers are coalesced into a single IN query by the batch loader. Runs without opening
+     * a transaction so no connection is held while waiting for the batch. Every record returned
+     * is remembered for stale reads while the database circuit breaker is open.
      *
      * @param id the content ID
      * @return Optional containing the content if found
+     * @throws com.yiava.exception.DatabaseUnavailableException (possibly wrapped) if the breaker is open
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Content> findById(Long id) {
         if (id == null || id <= 0) {
             logger.warn("Invalid ID requested: {}", id);
             return Optional.empty();
         }
+        hotKeys.recordRead(id);
+
+        Content cached = nearCache.get(id);
+        if (cached != null) {
+            lastKnownGood.remember(cached);
+            return Optional.of(cached);
+        }
+        if (localStore.canServe()) {
+            return Optional.ofNullable(localStore.get(id));
+        }
 
         logger.debug("Finding content by ID: {}", id);
-        Content content = contentMapper.findById(id);
+        long stamp = nearCache.stamp(id);
+        Content content = batchLoader.isApplicable()
+                ? batchLoader.await(id, batchLoader.load(id))
+                : contentMapper.findById(id);
+        nearCache.put(id, content, stamp);
+        lastKnownGood.remember(content);
         return Optional.ofNullable(content);
     }
 
+    /**
+     * Find the validators (version and last update time) of a content record
+     * Answered from the near cache when possible, otherwise by a narrow query
+     * that skips the content column
+     *
+     * @param id the content ID
+     * @return Optional containing a content entity with at least id, version and updatedAt set
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Content> findValidator(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        Content cached = nearCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (localStore.canServe()) {
+            return Optional.ofNullable(localStore.get(id));
+        }
+        return Optional.ofNullable(contentMapper.findValidatorById(id));
+    }
+
+    /**
+     * Find several content records by ID
+     * Uses the same cache and batching path as {@link #findById(Long)}
+     *
+     * @param ids the content IDs
+     * @return the records found, in request order, without duplicates
+     * @throws IllegalArgumentException if too many IDs are requested or an ID is invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Content> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_IDS_PER_REQUEST) {
+            logger.warn("Multi-get with too many IDs: {}", Integer.valueOf(ids.size()));
+            throw new IllegalArgumentException("At most " + MAX_IDS_PER_REQUEST + " IDs can be requested at once");
+        }
+
+        logger.debug("Finding {} content records by ID", Integer.valueOf(ids.size()));
+        Map<Long, Content> found = new LinkedHashMap<>();
+        Map<Long, Long> missStamps = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("Invalid content ID: " + id);
+            }
+            if (found.containsKey(id)) {
+                continue;
+            }
+            Content cached = nearCache.get(id);
+            found.put(id, cached);
+            if (cached == null) {
+                missStamps.put(id, nearCache.stamp(id));
+            }
+        }
+
+        if (!missStamps.isEmpty()) {
+            if (localStore.canServe()) {
+                missStamps.keySet().forEach(id -> found.put(id, localStore.get(id)));
+            } else if (batchLoader.isApplicable()) {
+                Map<Long, CompletableFuture<Content>> pending = new LinkedHashMap<>();
+                missStamps.keySet().forEach(id -> pending.put(id, batchLoader.load(id)));
+                pending.forEach((id, future) -> found.put(id, batchLoader.await(id, future)));
+            } else {
+                contentMapper.findByIds(missStamps.keySet()).forEach(content -> found.put(content.getId(), content));
+            }
+            missStamps.forEach((id, stamp) -> nearCache.put(id, found.get(id), stamp));
+        }
+
+        List<Content> result = new ArrayList<>(found.size());
+        for (Content content : found.values()) {
+            if (content != null) {
+                lastKnownGood.remember(content);
+                result.add(content);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Look up the last copy of a record read on this node, for stale reads while the
+     * database is unavailable
+     * Not coherent with writes on other nodes; callers must mark the result as stale
+     *
+     * @param id the content ID
+     * @return the remembered record and when it was read, if any
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<LastKnownGoodStore.Entry> findLastKnownGood(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lastKnownGood.get(id));
+    }
+
     /**
      * Find all content records
+     * Served from the local store when it is enabled and current
      *
      * @return list of all content records
      */
     @Transactional(readOnly = true)
     public List<Content> findAll() {
         logger.debug("Finding all content records");
+        if (localStore.canServe()) {
+            return localStore.findAll();
+        }
         return contentMapper.findAll();
     }
 
@@ -100,6 +330,26 @@ public class ContentService {
      * @throws RuntimeException if content not found or update failed
      */
     public Content update(Long id, String newContentText) {
+        return update(id, newContentText, null);
+    }
+
+    /**
+     * Update content by ID, optionally only if its version is one of the expected ones
+     * With a single expected version the write itself decides whether the record exists and
+     * matches. When the statistics rollup needs the old length, or several versions are
+     * acceptable, the current version is read without a lock and the write is checked against
+     * it; a lost race is retried on a locked read.
+     *
+     * @param id the content ID
+     * @param newContentText the updated content text
+     * @param expectedVersions the versions the caller accepts, or null for an unconditional update
+     * @return the updated content entity
+     * @throws IllegalArgumentException if content is invalid
+     * @throws PreconditionFailedException if the record exists but its version is not expected
+     * @throws ConflictException if, without expectedVersions, concurrent writes won every attempt
+     * @throws RuntimeException if content not found
+     */
+    public Content update(Long id, String newContentText, Set<Long> expectedVersions) {
         logger.info("Updating content with ID: {}", id);
 
         // Validate ID
@@ -107,13 +357,8 @@ public class ContentService {
             logger.warn("Invalid ID for update: {}", id);
             throw new IllegalArgumentException("Invalid content ID");
         }
-
-        // Check if content exists
-        Optional<Content> existingContent = findById(id);
-        if (existingContent.isEmpty()) {
-            logger.warn("Content not found for ID: {}", id);
-            throw new RuntimeException("Content not found with ID: " + id);
-        }
+        hotKeys.recordWrite(id);
+        lastKnownGood.forget(id);
 
         // Validate new content
         if (!StringUtils.hasText(newContentText)) {
@@ -126,22 +371,140 @@ public class ContentService {
             throw new IllegalArgumentException("Content must not exceed 5000 characters");
         }
 
-        // Update content
-        int rowsAffected = contentMapper.updateById(id, newContentText);
+        if (statsService.isEnabled() || (expectedVersions != null && expectedVersions.size() > 1)) {
+            // Statistics need the old length, and a list of versions cannot go into the WHERE
+            // clause: read the row without a lock and write with a check on the version read
+            ContentSize before = contentMapper.findSizeById(id);
+            int attempt = 1;
+            while (true) {
+                if (before == null) {
+                    logger.warn("Content not found for ID: {}", id);
+                    throw new RuntimeException("Content not found with ID: " + id);
+                }
+                if (expectedVersions != null && !expectedVersions.contains(before.getVersion())) {
+                    logger.warn("Version mismatch updating content with ID: {}, expected versions {}", id, expectedVersions);
+                    throw new PreconditionFailedException("Content with ID " + id + " has been modified");
+                }
+                if (contentMapper.updateByIdAndVersion(id, newContentText, before.getVersion()) > 0) {
+                    break;
+                }
+                if (attempt++ >= UNCONDITIONAL_WRITE_ATTEMPTS) {
+                    logger.warn("Giving up updating content with ID: {} after {} concurrent modifications", id, Integer.valueOf(UNCONDITIONAL_WRITE_ATTEMPTS));
+                    throw new ConflictException("Content with ID " + id + " is being modified concurrently");
+                }
+                logger.debug("Concurrent modification updating content with ID: {}, retrying", id);
+                before = contentMapper.findSizeByIdForUpdate(id);
+            }
+            statsService.recordUpdate(before, newContentText);
+        } else {
+            int rowsAffected = expectedVersions == null
+                    ? contentMapper.updateById(id, newContentText)
+                    : contentMapper.updateByIdAndVersion(id, newContentText, expectedVersions.iterator().next());
 
-        if (rowsAffected == 0) {
-            logger.error("Failed to update content in database for ID: {}", id);
-            throw new RuntimeException("Failed to update content");
+            if (rowsAffected == 0) {
+                // Only the failure path pays for telling "missing" from "changed"
+                if (expectedVersions != null && contentMapper.findValidatorById(id) != null) {
+                    logger.warn("Version mismatch updating content with ID: {}, expected versions {}", id, expectedVersions);
+                    throw new PreconditionFailedException("Content with ID " + id + " has been modified");
+                }
+                logger.warn("Content not found for ID: {}", id);
+                throw new RuntimeException("Content not found with ID: " + id);
+            }
         }
+        invalidate(id);
 
         // Retrieve updated content
         Content updatedContent = contentMapper.findById(id);
+        localStore.applyAfterCommit(updatedContent);
         logger.info("Successfully updated content with ID: {}", id);
         return updatedContent;
     }
 
+    /**
+     * Apply a list of edits to the stored content text
+     * The edits are applied in memory to the current row and written back with a
+     * version check, so the whole list lands atomically or not at all.
+     *
+     * @param id the content ID
+     * @param operations the edits to apply, in order
+     * @param expectedVersions the versions the caller accepts, or null to edit whatever is current
+     * @return the updated content entity
+     * @throws IllegalArgumentException if an edit is out of range or the result is invalid
+     * @throws PreconditionFailedException if the version is not one of expectedVersions
+     * @throws ConflictException if, without expectedVersions, concurrent writes won every attempt
+     * @throws RuntimeException if content not found
+     */
+    public Content patch(Long id, List<ContentEditOperation> operations, Set<Long> expectedVersions) {
+        logger.info("Patching content with ID: {} ({} operations)", id, operations.size());
+
+        // Validate ID
+        if (id == null || id <= 0) {
+            logger.warn("Invalid ID for patch: {}", id);
+            throw new IllegalArgumentException("Invalid content ID");
+        }
+        hotKeys.recordWrite(id);
+        lastKnownGood.forget(id);
+
+        Content current = contentMapper.findById(id);
+        if (current == null) {
+            logger.warn("Content not found for ID: {}", id);
+            throw new RuntimeException("Content not found with ID: " + id);
+        }
+        if (expectedVersions != null && !expectedVersions.contains(current.getVersion())) {
+            logger.warn("Version mismatch patching content with ID: {}, expected versions {}", id, expectedVersions);
+            throw new PreconditionFailedException("Content with ID " + id + " has been modified");
+        }
+
+        // Write back only if nobody changed the row since it was read; without If-Match a lost
+        // race is retried on a locked read, which sees the latest committed row
+        String newContentText;
+        int attempt = 1;
+        while (true) {
+            newContentText = applyEdits(current.getContent(), operations);
+
+            // Validate resulting content
+            if (!StringUtils.hasText(newContentText)) {
+                logger.warn("Attempt to patch content to empty text");
+                throw new IllegalArgumentException("Content cannot be empty");
+            }
+
+            if (newContentText.length() > 5000) {
+                logger.warn("Attempt to patch content exceeding length limit: {} characters", Integer.valueOf(newContentText.length()));
+                throw new IllegalArgumentException("Content must not exceed 5000 characters");
+            }
+
+            if (contentMapper.updateByIdAndVersion(id, newContentText, current.getVersion()) > 0) {
+                break;
+            }
+            if (expectedVersions != null) {
+                logger.warn("Concurrent modification patching content with ID: {}", id);
+                throw new PreconditionFailedException("Content with ID " + id + " has been modified");
+            }
+            if (attempt++ >= UNCONDITIONAL_WRITE_ATTEMPTS) {
+                logger.warn("Giving up patching content with ID: {} after {} concurrent modifications", id, Integer.valueOf(UNCONDITIONAL_WRITE_ATTEMPTS));
+                throw new ConflictException("Content with ID " + id + " is being modified concurrently");
+            }
+            logger.debug("Concurrent modification patching content with ID: {}, retrying", id);
+            current = contentMapper.findByIdForUpdate(id);
+            if (current == null) {
+                logger.warn("Content not found for ID: {}", id);
+                throw new RuntimeException("Content not found with ID: " + id);
+            }
+        }
+        statsService.recordUpdate(current, newContentText);
+        invalidate(id);
+
+        Content updatedContent = contentMapper.findById(id);
+        localStore.applyAfterCommit(updatedContent);
+        logger.info("Successfully patched content with ID: {}", id);
+        return updatedContent;
+    }
+
     /**
      * Delete content by ID
+     * With tombstones enabled the row is only marked as deleted, a single-row update that
+     * costs the same however large the table is; the purge removes it later. Nothing is read
+     * beforehand: the statistics rollup takes the length from the tombstoned row.
      *
      * @param id the content ID
      * @throws RuntimeException if content not found or delete failed
@@ -154,23 +517,53 @@ public class ContentService {
             logger.warn("Invalid ID for delete: {}", id);
             throw new IllegalArgumentException("Invalid content ID");
         }
+        lastKnownGood.forget(id);
 
-        // Check if content exists
-        Optional<Content> existingContent = findById(id);
-        if (existingContent.isEmpty()) {
-            logger.warn("Content not found for ID: {}", id);
-            throw new RuntimeException("Content not found with ID: " + id);
+        if (tombstoneProperties.isEnabled()) {
+            if (contentMapper.softDeleteById(id) == 0) {
+                logger.warn("Content not found for ID: {}", id);
+                throw new RuntimeException("Content not found with ID: " + id);
+            }
+            // The tombstone keeps its text, so its length is read back from the locked row
+            statsService.recordTombstone(id);
+        } else {
+            // A hard delete checks existence first and takes the length from the locked row
+            Content existing = contentMapper.findByIdForUpdate(id);
+            if (existing == null) {
+                logger.warn("Content not found for ID: {}", id);
+                throw new RuntimeException("Content not found with ID: " + id);
+            }
+            if (contentMapper.deleteById(id) == 0) {
+                logger.error("Failed to delete content from database for ID: {}", id);
+                throw new RuntimeException("Failed to delete content");
+            }
+            statsService.recordDelete(existing);
         }
+        invalidate(id);
+        localStore.removeAfterCommit(id);
 
-        // Delete content
-        int rowsAffected = contentMapper.deleteById(id);
+        logger.info("Successfully deleted content with ID: {}", id);
+    }
 
-        if (rowsAffected == 0) {
-            logger.error("Failed to delete content from database for ID: {}", id);
-            throw new RuntimeException("Failed to delete content");
+    /**
+     * List tombstones of deleted records after a cursor, for consumers that mirror the table
+     * Pass the deletedAt and id of the last tombstone received to continue from it. Only
+     * tombstones older than the settle delay are listed; tombstones older than the retention
+     * period may already have been purged.
+     *
+     * @param since only tombstones deleted at or after this time are listed, null for all
+     * @param afterId among tombstones deleted exactly at since, only greater ids are listed
+     * @param limit maximum number of tombstones
+     * @return the tombstones, in (deletedAt, id) order
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<ContentTombstone> findTombstones(LocalDateTime since, long afterId, int limit) {
+        if (limit < 1 || limit > tombstoneProperties.getFeedMaxLimit()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + tombstoneProperties.getFeedMaxLimit());
         }
-
-        logger.info("Successfully deleted content with ID: {}", id);
+        return contentMapper.findTombstones(since == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : since,
+                afterId, tombstoneProperties.getFeedSettleDelay().toSeconds(), limit);
     }
 
     /**
@@ -190,11 +583,80 @@ public class ContentService {
      * @param id the content ID
      * @return true if content exists
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsById(Long id) {
         if (id == null || id <= 0) {
             return false;
         }
         return findById(id).isPresent();
     }
+
+    /**
+     * Record a write for the near caches of every node and for in-flight batched reads
+     * The log entry commits or rolls back with the write itself
+     *
+     * @param id the content ID that changed
+     */
+    private void invalidate(Long id) {
+        if (nearCache.isEnabled()) {
+            invalidationMapper.insert(id);
+            nearCache.evictAfterCommit(id);
+        }
+        batchLoader.forgetAfterCommit(id);
+    }
+
+    /**
+     * Apply edits to a text
+     *
+     * @param text the current text
+     * @param operations the edits, in order
+     * @return the edited text
+     * @throws IllegalArgumentException if an edit is incomplete or out of range
+     */
+    private static String applyEdits(String text, List<ContentEditOperation> operations) {
+        StringBuilder buffer = new StringBuilder(text);
+        for (int i = 0; i < operations.size(); i++) {
+            ContentEditOperation operation = operations.get(i);
+            switch (operation.getOp()) {
+                case APPEND -> buffer.append(requireText(operation, i));
+                case INSERT -> buffer.insert(requireOffset(operation, i, buffer.length()), requireText(operation, i));
+                case DELETE -> {
+                    int offset = requireOffset(operation, i, buffer.length());
+                    buffer.delete(offset, offset + requireLength(operation, i, offset, buffer.length()));
+                }
+                case REPLACE -> {
+                    int offset = requireOffset(operation, i, buffer.length());
+                    int length = requireLength(operation, i, offset, buffer.length());
+                    buffer.replace(offset, offset + length, requireText(operation, i));
+                }
+            }
+            if (buffer.length() > 5000) {
+                throw new IllegalArgumentException("Content must not exceed 5000 characters (after operation " + i + ")");
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static String requireText(ContentEditOperation operation, int index) {
+        if (operation.getText() == null) {
+            throw new IllegalArgumentException("Operation " + index + " requires text");
+        }
+        return operation.getText();
+    }
+
+    private static int requireOffset(ContentEditOperation operation, int index, int textLength) {
+        Integer offset = operation.getOffset();
+        if (offset == null || offset < 0 || offset > textLength) {
+            throw new IllegalArgumentException("Operation " + index + " offset must be between 0 and " + textLength);
+        }
+        return offset;
+    }
+
+    private static int requireLength(ContentEditOperation operation, int index, int offset, int textLength) {
+        Integer length = operation.getLength();
+        if (length == null || length < 0 || offset + length > textLength) {
+            throw new IllegalArgumentException("Operation " + index + " length must be between 0 and " + (textLength - offset));
+        }
+        return length;
+    }
 }
@@ -0,0 +1,55 @@
+package com.yiava.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the content statistics rollup
+ * Available at /actuator/contentstats; POST rebuilds the rollup from the content table
+ */
+@Component
+@Endpoint(id = "contentstats")
+public class ContentStatsEndpoint {
+
+    private final ContentStatsService statsService;
+    private final ContentStatsProperties properties;
+
+    public ContentStatsEndpoint(ContentStatsService statsService, ContentStatsProperties properties) {
+        this.statsService = statsService;
+        this.properties = properties;
+    }
+
+    /**
+     * Rollup configuration and size
+     *
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> contentStats() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.put("slots", properties.getSlots());
+        view.put("rollupRows", statsService.rollupRows());
+        return view;
+    }
+
+    /**
+     * Rebuild the rollup from the content table
+     *
+     * @return the number of records scanned and the time taken
+     */
+    @WriteOperation
+    public Map<String, Object> backfill() {
+        long started = System.nanoTime();
+        long scanned = statsService.backfill();
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("scanned", scanned);
+        view.put("millis", (System.nanoTime() - started) / 1_000_000);
+        return view;
+    }
+}
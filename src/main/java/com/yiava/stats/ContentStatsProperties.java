@@ -0,0 +1,61 @@
+package com.yiava.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the content statistics rollup
+ * Bound from the yiava.stats prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.stats")
+public class ContentStatsProperties {
+
+    /**
+     * Whether content writes maintain the content_stats_hourly rollup
+     * Must be the same on every node sharing the database; after turning it back on, run a backfill
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of rows each hour is spread over to reduce lock contention between concurrent creates
+     * Changing it requires a backfill
+     */
+    private int slots = 8;
+
+    /**
+     * Maximum number of buckets a single statistics query may span
+     */
+    private int maxBuckets = 10000;
+
+    /**
+     * Rebuild the rollup after startup when it is empty but content exists
+     * Off by default: a first deploy against a large table would start a full scan on its own
+     */
+    private boolean backfillOnStartup = false;
+
+    /**
+     * Number of content records read per query during a backfill
+     */
+    private int backfillPageSize = 1000;
+
+    /**
+     * How long before a backfill starts its scan a content write counts as possibly missed by the scan
+     * Hours changed since then are recounted after the swap; must exceed the longest content write transaction
+     */
+    private Duration backfillWriteMargin = Duration.ofMinutes(1);
+
+    public boolean isEnabled() { return enabled; }
+    public int getSlots() { return slots; }
+    public int getMaxBuckets() { return maxBuckets; }
+    public boolean isBackfillOnStartup() { return backfillOnStartup; }
+    public int getBackfillPageSize() { return backfillPageSize; }
+    public Duration getBackfillWriteMargin() { return backfillWriteMargin; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setSlots(int slots) { this.slots = slots; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+    public void setBackfillOnStartup(boolean backfillOnStartup) { this.backfillOnStartup = backfillOnStartup; }
+    public void setBackfillPageSize(int backfillPageSize) { this.backfillPageSize = backfillPageSize; }
+    public void setBackfillWriteMargin(Duration backfillWriteMargin) { this.backfillWriteMargin = backfillWriteMargin; }
+}
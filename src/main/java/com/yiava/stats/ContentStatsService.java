@@ -0,0 +1,393 @@
+package com.yiava.stats;
+
+import com.yiava.dto.ContentStatsResponse;
+import com.yiava.entity.Content;
+import com.yiava.entity.ContentSize;
+import com.yiava.entity.ContentStatsBucket;
+import com.yiava.mapper.ContentMapper;
+import com.yiava.mapper.ContentStatsMapper;
+import com.yiava.scan.ParallelContentScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains and queries the hourly content rollup
+ *
+ * Content writes call the record methods inside their own transaction, so the rollup
+ * commits or rolls back with the write. Records are attributed to the hour they were
+ * created in; an update moves the length total of that hour, a delete removes the record
+ * from it. Lengths are counted in characters, as CHAR_LENGTH counts them. Queries read one
+ * row per hour and slot, independent of the number of records.
+ */
+@Service
+@Transactional
+public class ContentStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStatsService.class);
+
+    /**
+     * Number of bucket slots written per backfill insert
+     */
+    private static final int BACKFILL_INSERT_BATCH = 500;
+
+    private static final Comparator<SlotKey> SLOT_ORDER =
+            Comparator.comparing(SlotKey::bucketStart).thenComparingInt(SlotKey::slot);
+
+    private final ContentStatsMapper statsMapper;
+    private final ContentMapper contentMapper;
+    private final ContentStatsProperties properties;
+    private final ParallelContentScanner scanner;
+    private final TransactionTemplate swapTransaction;
+    private final TransactionTemplate recountTransaction;
+
+    public ContentStatsService(ContentStatsMapper statsMapper,
+                               ContentMapper contentMapper,
+                               ContentStatsProperties properties,
+                               ParallelContentScanner scanner,
+                               PlatformTransactionManager transactionManager) {
+        this.statsMapper = statsMapper;
+        this.contentMapper = contentMapper;
+        this.properties = properties;
+        this.scanner = scanner;
+        this.swapTransaction = new TransactionTemplate(transactionManager);
+        // Both reads of a recount must see the same snapshot, with the same writes applied to rollup and content
+        this.recountTransaction = new TransactionTemplate(transactionManager);
+        this.recountTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Whether content writes maintain the rollup
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Count a newly created record
+     *
+     * @param created the inserted content, with id and createdAt set
+     */
+    public void recordCreate(Content created) {
+        if (isEnabled()) {
+            add(created.getId(), created.getCreatedAt(), 1, lengthOf(created.getContent()));
+        }
+    }
+
+    /**
+     * Count newly created records, with one upsert per bucket slot
+     *
+     * @param created the inserted content, with id and createdAt set
+     */
+    public void recordCreates(List<Content> created) {
+        if (!isEnabled()) {
+            return;
+        }
+        // Upsert in key order so concurrent batches lock the slots in the same order
+        Map<SlotKey, long[]> totals = new TreeMap<>(SLOT_ORDER);
+        for (Content content : created) {
+            accumulate(totals, content);
+        }
+        totals.forEach((key, slot) -> statsMapper.upsert(key.bucketStart(), key.slot(), slot[0], slot[1]));
+    }
+
+    /**
+     * Account for a change of content length
+     *
+     * @param before the record as it was before the update, with id and createdAt set
+     * @param newContentText the text written by the update
+     */
+    public void recordUpdate(Content before, String newContentText) {
+        recordUpdate(before.getId(), before.getCreatedAt(), lengthOf(before.getContent()), newContentText);
+    }
+
+    /**
+     * Account for a change of content length
+     *
+     * @param before the size of the record at the version the update replaced
+     * @param newContentText the text written by the update
+     */
+    public void recordUpdate(ContentSize before, String newContentText) {
+        recordUpdate(before.getId(), before.getCreatedAt(), before.getContentLength(), newContentText);
+    }
+
+    /**
+     * Remove a deleted record
+     *
+     * @param before the record as it was before the delete, with id and createdAt set
+     */
+    public void recordDelete(Content before) {
+        if (isEnabled()) {
+            add(before.getId(), before.getCreatedAt(), -1, -lengthOf(before.getContent()));
+        }
+    }
+
+    /**
+     * Remove a record this transaction has just tombstoned
+     * Needs no earlier read: the tombstoned row still holds its text and is already locked
+     *
+     * @param id the content ID
+     */
+    public void recordTombstone(Long id) {
+        if (isEnabled()) {
+            statsMapper.subtractTombstoned(id, properties.getSlots());
+        }
+    }
+
+    /**
+     * Length of a content text as the rollup counts it: in characters, like CHAR_LENGTH
+     *
+     * @param text the text, may be null
+     * @return the number of code points
+     */
+    public static long lengthOf(String text) {
+        return text == null ? 0 : text.codePointCount(0, text.length());
+    }
+
+    /**
+     * Statistics for the records created in a time range
+     * The range is widened to whole buckets. Without from/to, the last 24 hours
+     * (hour buckets) or the last 30 days (day buckets) up to the current bucket are returned.
+     *
+     * @param from inclusive start, may be null
+     * @param to exclusive end, may be null
+     * @param bucket "hour" or "day", null for hour
+     * @return the statistics
+     * @throws IllegalArgumentException if the bucket is unknown or the range is empty or too large
+     */
+    @Transactional(readOnly = true)
+    public ContentStatsResponse query(LocalDateTime from, LocalDateTime to, String bucket) {
+        String granularity = bucket == null ? "hour" : bucket.trim().toLowerCase(Locale.ROOT);
+        ChronoUnit unit = switch (granularity) {
+            case "hour" -> ChronoUnit.HOURS;
+            case "day" -> ChronoUnit.DAYS;
+            default -> throw new IllegalArgumentException("Bucket must be 'hour' or 'day'");
+        };
+
+        LocalDateTime end = to != null ? ceil(to, unit) : LocalDateTime.now().truncatedTo(unit).plus(1, unit);
+        LocalDateTime start = from != null
+                ? from.truncatedTo(unit)
+                : end.minus(unit == ChronoUnit.HOURS ? 24 : 30, unit);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        long bucketCount = unit.between(start, end);
+        if (bucketCount > properties.getMaxBuckets()) {
+            throw new IllegalArgumentException("Range spans " + bucketCount + " buckets, at most "
+                    + properties.getMaxBuckets() + " are allowed");
+        }
+
+        // Hourly rows arrive in time order; fold them into the requested granularity
+        Map<LocalDateTime, long[]> folded = new LinkedHashMap<>();
+        for (ContentStatsBucket row : statsMapper.findRange(start, end)) {
+            long[] totals = folded.computeIfAbsent(row.getBucketStart().truncatedTo(unit), key -> new long[2]);
+            totals[0] += row.getContentCount();
+            totals[1] += row.getTotalLength();
+        }
+
+        List<ContentStatsResponse.Bucket> buckets = new ArrayList<>(folded.size());
+        long contentCount = 0;
+        long totalLength = 0;
+        for (Map.Entry<LocalDateTime, long[]> entry : folded.entrySet()) {
+            long[] totals = entry.getValue();
+            buckets.add(new ContentStatsResponse.Bucket(entry.getKey(), totals[0], totals[1], average(totals[1], totals[0])));
+            contentCount += totals[0];
+            totalLength += totals[1];
+        }
+        logger.debug("Content statistics from {} to {} by {}: {} buckets", start, end, granularity,
+                Integer.valueOf(buckets.size()));
+        return new ContentStatsResponse(granularity, start, end, contentCount, totalLength,
+                average(totalLength, contentCount), buckets);
+    }
+
+    /**
+     * Rebuild the rollup from the content table
+     * The content table is read with a parallel scan outside any transaction, while writes keep
+     * updating the old rollup. The totals are then swapped in by one short transaction that locks
+     * the rollup, not the content table. Hours that content writes changed since shortly before
+     * the scan started may have been read mid-change; each is recounted afterwards from the
+     * content table, and the difference is applied as a delta so writes running meanwhile are kept.
+     *
+     * @return the number of content records scanned
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long backfill() {
+        long started = System.nanoTime();
+        // Database clock, the one changed_at is written with
+        LocalDateTime changedSince = contentMapper.currentTimestamp().minus(properties.getBackfillWriteMargin());
+
+        Map<SlotKey, long[]> totals = scanner.aggregate("stats-backfill", properties.getBackfillPageSize(),
+                HashMap::new, this::accumulate, ContentStatsService::merge);
+        long scanned = 0;
+        for (long[] slot : totals.values()) {
+            scanned += slot[0];
+        }
+
+        Set<LocalDateTime> changedHours = swapTransaction.execute(status -> swap(totals, changedSince));
+        for (LocalDateTime hour : changedHours) {
+            recountTransaction.executeWithoutResult(status -> recount(hour));
+        }
+
+        logger.info("Content statistics backfill scanned {} records into {} bucket slots and recounted {} changed hours in {} ms",
+                Long.valueOf(scanned), Integer.valueOf(totals.size()), Integer.valueOf(changedHours.size()),
+                Long.valueOf((System.nanoTime() - started) / 1_000_000));
+        return scanned;
+    }
+
+    /**
+     * Rebuild the rollup only if it is empty while content exists
+     * Used after startup, e.g. the first time the application runs with statistics enabled
+     *
+     * @return the number of content records scanned, 0 if nothing was done
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long backfillIfEmpty() {
+        if (!isEnabled() || statsMapper.countRows() > 0 || contentMapper.count() == 0) {
+            return 0;
+        }
+        logger.info("Content statistics rollup is empty, starting backfill");
+        return backfill();
+    }
+
+    /**
+     * Number of stored bucket slots
+     *
+     * @return the row count of the rollup table
+     */
+    @Transactional(readOnly = true)
+    public long rollupRows() {
+        return statsMapper.countRows();
+    }
+
+    /**
+     * Replace the rollup with the scanned totals
+     * Locking every slot first makes content writes wait for the swap instead of changing rows it
+     * replaces; writes that already changed a slot are waited for and reported for a recount.
+     *
+     * @return the hours changed by content writes since the given time
+     */
+    private Set<LocalDateTime> swap(Map<SlotKey, long[]> totals, LocalDateTime changedSince) {
+        Set<LocalDateTime> changedHours = new TreeSet<>();
+        for (ContentStatsBucket row : statsMapper.lockAll()) {
+            if (row.getChangedAt() != null && !row.getChangedAt().isBefore(changedSince)) {
+                changedHours.add(row.getBucketStart());
+            }
+        }
+        statsMapper.deleteAll();
+
+        List<ContentStatsBucket> batch = new ArrayList<>(BACKFILL_INSERT_BATCH);
+        for (Map.Entry<SlotKey, long[]> entry : totals.entrySet()) {
+            SlotKey key = entry.getKey();
+            batch.add(new ContentStatsBucket(key.bucketStart(), key.slot(), entry.getValue()[0], entry.getValue()[1]));
+            if (batch.size() == BACKFILL_INSERT_BATCH) {
+                statsMapper.insertBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            statsMapper.insertBatch(batch);
+        }
+        return changedHours;
+    }
+
+    /**
+     * Correct the slots of one hour from the content table
+     * Rollup and content are read in one snapshot and the difference is added as a delta,
+     * so writes committed after the snapshot stay counted.
+     */
+    private void recount(LocalDateTime hour) {
+        Map<Integer, long[]> differences = new TreeMap<>();
+        for (ContentStatsBucket counted : statsMapper.countContentBySlot(hour, hour.plusHours(1), properties.getSlots())) {
+            long[] difference = differences.computeIfAbsent(counted.getSlot(), slot -> new long[2]);
+            difference[0] += counted.getContentCount();
+            difference[1] += counted.getTotalLength();
+        }
+        for (ContentStatsBucket stored : statsMapper.findHour(hour)) {
+            long[] difference = differences.computeIfAbsent(stored.getSlot(), slot -> new long[2]);
+            difference[0] -= stored.getContentCount();
+            difference[1] -= stored.getTotalLength();
+        }
+        differences.forEach((slot, difference) -> {
+            if (difference[0] != 0 || difference[1] != 0) {
+                statsMapper.upsert(hour, slot, difference[0], difference[1]);
+            }
+        });
+    }
+
+    /**
+     * Add a scanned record to a partial backfill result
+     */
+    private void accumulate(Map<SlotKey, long[]> totals, Content content) {
+        if (content.getCreatedAt() == null) {
+            return;
+        }
+        long[] slot = totals.computeIfAbsent(keyOf(content.getId(), content.getCreatedAt()), key -> new long[2]);
+        slot[0]++;
+        slot[1] += lengthOf(content.getContent());
+    }
+
+    /**
+     * Fold one partial backfill result into another
+     */
+    private static Map<SlotKey, long[]> merge(Map<SlotKey, long[]> into, Map<SlotKey, long[]> from) {
+        from.forEach((key, totals) -> {
+            long[] slot = into.computeIfAbsent(key, k -> new long[2]);
+            slot[0] += totals[0];
+            slot[1] += totals[1];
+        });
+        return into;
+    }
+
+    private void recordUpdate(Long id, LocalDateTime createdAt, long oldLength, String newContentText) {
+        long delta = lengthOf(newContentText) - oldLength;
+        if (isEnabled() && delta != 0) {
+            add(id, createdAt, 0, delta);
+        }
+    }
+
+    private void add(Long id, LocalDateTime createdAt, long countDelta, long lengthDelta) {
+        if (createdAt == null) {
+            logger.warn("Content with ID: {} has no creation time, skipping statistics", id);
+            return;
+        }
+        SlotKey key = keyOf(id, createdAt);
+        statsMapper.upsert(key.bucketStart(), key.slot(), countDelta, lengthDelta);
+    }
+
+    private SlotKey keyOf(Long id, LocalDateTime createdAt) {
+        return new SlotKey(createdAt.truncatedTo(ChronoUnit.HOURS),
+                (int) Math.floorMod(id, (long) properties.getSlots()));
+    }
+
+    private static LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime floor = time.truncatedTo(unit);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    private static double average(long totalLength, long contentCount) {
+        return contentCount == 0 ? 0 : Math.round(totalLength * 100.0 / contentCount) / 100.0;
+    }
+
+    private record SlotKey(LocalDateTime bucketStart, int slot) {
+    }
+}
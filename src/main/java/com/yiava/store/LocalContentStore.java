@@ -0,0 +1,440 @@
+package com.yiava.store;
+
+import com.yiava.cache.ContentInvalidationListener;
+import com.yiava.cache.NearCacheProperties;
+import com.yiava.entity.Content;
+import com.yiava.mapper.ContentMapper;
+import com.yiava.scan.ParallelContentScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local read replica of the content table
+ *
+ * Records live in a memory-mapped, append-only data file; an off-heap open-addressing table maps
+ * each id to its latest offset. Neither is on the GC heap, only the records handed out are.
+ *
+ * The store is filled from a parallel keyset scan of the content table and kept current by this node's
+ * committed writes and by the ids other nodes list in the invalidation log. Every change carries
+ * the row version and only a newer version replaces an older one, and deleted ids keep an entry
+ * with the highest version, so updates may arrive in any order, also while the snapshot loads.
+ * The first poll of the invalidation log starts the load. Reads fall back to the database until the
+ * snapshot is complete and whenever the last poll is older than the near cache staleness bound.
+ */
+@Component
+public class LocalContentStore implements ContentInvalidationListener, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalContentStore.class);
+
+    private final ContentMapper contentMapper;
+    private final ParallelContentScanner scanner;
+    private final LocalStoreProperties properties;
+    private final NearCacheProperties nearCacheProperties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private MappedContentLog log;
+    private OffHeapIdIndex index;
+    private long liveBytes;
+
+    private volatile boolean ready;
+    private volatile long lastPollMillis;
+    private volatile long lastLoadMillis = -1;
+    private volatile int compactions;
+
+    public LocalContentStore(ContentMapper contentMapper,
+                             ParallelContentScanner scanner,
+                             LocalStoreProperties properties,
+                             NearCacheProperties nearCacheProperties) {
+        this.contentMapper = contentMapper;
+        this.scanner = scanner;
+        this.properties = properties;
+        this.nearCacheProperties = nearCacheProperties;
+    }
+
+    /**
+     * Check if the local store is enabled
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether reads may be answered by the store
+     * If true, a missing id means the record does not exist
+     *
+     * @return true if the snapshot is loaded and current
+     */
+    public boolean canServe() {
+        if (!ready || !nearCacheProperties.isEnabled()) {
+            return false;
+        }
+        return System.currentTimeMillis() - lastPollMillis <= nearCacheProperties.getMaxStaleness().toMillis();
+    }
+
+    /**
+     * Look up a record
+     *
+     * @param id the content ID
+     * @return the record, or null if it does not exist
+     */
+    public Content get(long id) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return null;
+            }
+            int slot = index.find(id);
+            if (slot < 0 || index.offsetAt(slot) == OffHeapIdIndex.DELETED) {
+                return null;
+            }
+            return log.read(index.offsetAt(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All records, newest id first
+     *
+     * @return the records
+     */
+    public List<Content> findAll() {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return List.of();
+            }
+            long[] ids = new long[index.liveCount()];
+            int count = 0;
+            for (int slot = 0; slot < index.capacity(); slot++) {
+                long id = index.idAt(slot);
+                if (id != 0 && index.offsetAt(slot) != OffHeapIdIndex.DELETED) {
+                    ids[count++] = id;
+                }
+            }
+            Arrays.sort(ids, 0, count);
+            List<Content> result = new ArrayList<>(count);
+            for (int i = count - 1; i >= 0; i--) {
+                result.add(log.read(index.offsetAt(index.find(ids[i]))));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store a record once the surrounding transaction commits
+     *
+     * @param content the record as written, with id and version set
+     */
+    public void applyAfterCommit(Content content) {
+        if (!isEnabled() || content == null) {
+            return;
+        }
+        afterCommit(() -> apply(content));
+    }
+
+    /**
+     * Forget a record once the surrounding transaction commits
+     *
+     * @param id the deleted content ID
+     */
+    public void removeAfterCommit(Long id) {
+        if (!isEnabled()) {
+            return;
+        }
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Re-read the ids other nodes changed
+     * The first poll also starts the snapshot, so no change committed after it can be missed
+     */
+    @Override
+    public void invalidated(Collection<Long> contentIds, long pollStartMillis) {
+        if (!isEnabled()) {
+            return;
+        }
+        long previousPoll = lastPollMillis;
+        lastPollMillis = pollStartMillis;
+        if (previousPoll > 0 && pollStartMillis - previousPoll > nearCacheProperties.getRetention().toMillis()) {
+            // Log entries may have been pruned while polls were failing
+            logger.warn("Invalidation log was not polled for {} ms, reloading local store",
+                    Long.valueOf(pollStartMillis - previousPoll));
+            startLoad();
+            return;
+        }
+        if (loadStarted.compareAndSet(false, true)) {
+            startLoad();
+            return;
+        }
+        if (!contentIds.isEmpty()) {
+            refresh(contentIds);
+        }
+    }
+
+    /**
+     * Start loading the snapshot in the background, unless a load is already running
+     * Reads fall back to the database until it completes
+     */
+    public void startLoad() {
+        if (!isEnabled() || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        loadStarted.set(true);
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+            } catch (RuntimeException ex) {
+                logger.error("Failed to load local content store", ex);
+            } finally {
+                loading.set(false);
+            }
+        }, "local-store-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Replace the store content with a fresh snapshot of the content table
+     * Changes applied while the scan runs are kept when they are newer than the scanned rows
+     *
+     * @return the number of records loaded
+     */
+    public synchronized long reload() {
+        long started = System.nanoTime();
+        MappedContentLog previous;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            previous = replaceStorage();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        close(previous);
+
+        long loaded = scanner.forEachOrdered("local-store-load", properties.getLoadPageSize(), page -> {
+            lock.writeLock().lock();
+            try {
+                for (Content content : page) {
+                    store(content);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        lastLoadMillis = (System.nanoTime() - started) / 1_000_000;
+        ready = true;
+        logger.info("Local content store loaded {} records in {} ms", Long.valueOf(loaded), Long.valueOf(lastLoadMillis));
+        return loaded;
+    }
+
+    /**
+     * Build a JSON-friendly snapshot of the store state
+     *
+     * @return the snapshot
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", isEnabled());
+        view.put("ready", ready);
+        view.put("serving", canServe());
+        view.put("lastLoadMillis", lastLoadMillis);
+        view.put("compactions", compactions);
+        if (log == null) {
+            return view;
+        }
+        lock.readLock().lock();
+        try {
+            view.put("file", log.file().toString());
+            view.put("records", index.liveCount());
+            view.put("deletedIds", index.deletedCount());
+            view.put("fileBytes", log.size());
+            view.put("liveBytes", liveBytes);
+            view.put("mappedBytes", log.mappedBytes());
+            view.put("indexSlots", index.capacity());
+            view.put("indexBytes", index.memoryBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return view;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (log != null) {
+                log.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Content content) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                store(content);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            int slot = index.find(id);
+            if (slot >= 0 && index.offsetAt(slot) != OffHeapIdIndex.DELETED) {
+                liveBytes -= log.lengthAt(index.offsetAt(slot));
+            }
+            // Ids are never reused, so the deletion outranks any copy of the row still in flight
+            index.put(id, OffHeapIdIndex.DELETED, Long.MAX_VALUE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (Content content : contentMapper.findByIds(ids)) {
+            missing.remove(content.getId());
+            apply(content);
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Append a record if it is newer than the stored one; caller holds the write lock
+     */
+    private void store(Content content) {
+        long version = content.getVersion() == null ? 0L : content.getVersion();
+        int slot = index.find(content.getId());
+        if (slot >= 0 && index.versionAt(slot) >= version) {
+            return;
+        }
+        try {
+            long offset = log.append(content);
+            if (slot >= 0 && index.offsetAt(slot) != OffHeapIdIndex.DELETED) {
+                liveBytes -= log.lengthAt(index.offsetAt(slot));
+            }
+            liveBytes += log.lengthAt(offset);
+            index.put(content.getId(), offset, version);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append to local content store", ex);
+        }
+        if (ready && log.size() > properties.getSegmentSize().toBytes()
+                && log.size() - liveBytes > log.size() * properties.getCompactionGarbageRatio()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrite the live records into a new data file; caller holds the write lock
+     * Deleted ids keep their marker: it outranks copies of the record still in flight, such as
+     * the after-commit apply of an earlier update or a refresh that read before the delete
+     */
+    private void compact() {
+        long started = System.nanoTime();
+        MappedContentLog oldLog = log;
+        OffHeapIdIndex oldIndex = index;
+        long before = oldLog.size();
+        try {
+            replaceStorage();
+            for (int slot = 0; slot < oldIndex.capacity(); slot++) {
+                long id = oldIndex.idAt(slot);
+                long offset = oldIndex.offsetAt(slot);
+                if (id == 0) {
+                    continue;
+                }
+                if (offset == OffHeapIdIndex.DELETED) {
+                    index.put(id, OffHeapIdIndex.DELETED, oldIndex.versionAt(slot));
+                    continue;
+                }
+                long copied = log.append(oldLog.read(offset));
+                liveBytes += log.lengthAt(copied);
+                index.put(id, copied, oldIndex.versionAt(slot));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to compact local content store", ex);
+        }
+        close(oldLog);
+        compactions++;
+        logger.info("Compacted local content store from {} to {} bytes in {} ms", Long.valueOf(before),
+                Long.valueOf(log.size()), Long.valueOf((System.nanoTime() - started) / 1_000_000));
+    }
+
+    /**
+     * Switch to an empty data file and index; caller holds the write lock
+     *
+     * @return the previous data file, to be closed by the caller once no longer read
+     */
+    private MappedContentLog replaceStorage() {
+        MappedContentLog previous = log;
+        try {
+            Path file = properties.getDirectory().resolve("content-" + generation.incrementAndGet() + ".dat");
+            log = new MappedContentLog(file, (int) properties.getSegmentSize().toBytes());
+            index = new OffHeapIdIndex(properties.getIndexInitialCapacity());
+            liveBytes = 0;
+            return previous;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create local content store file", ex);
+        }
+    }
+
+    private static void close(MappedContentLog log) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException ex) {
+            logger.warn("Failed to delete local content store file {}: {}", log.file(), ex.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
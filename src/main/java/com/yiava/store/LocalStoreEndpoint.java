@@ -0,0 +1,47 @@
+package com.yiava.store;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint reporting local content store state: record count, file, mapped and index sizes
+ * Available at /actuator/localstore; POST reloads the snapshot
+ */
+@Component
+@Endpoint(id = "localstore")
+public class LocalStoreEndpoint {
+
+    private final LocalContentStore localStore;
+
+    public LocalStoreEndpoint(LocalContentStore localStore) {
+        this.localStore = localStore;
+    }
+
+    /**
+     * Store state and sizes
+     *
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> localStore() {
+        return localStore.snapshot();
+    }
+
+    /**
+     * Reload the snapshot from the content table
+     * Reads are served by the database while it runs
+     *
+     * @return the store state after the reload
+     */
+    @WriteOperation
+    public Map<String, Object> reload() {
+        if (localStore.isEnabled()) {
+            localStore.reload();
+        }
+        return localStore.snapshot();
+    }
+}
@@ -0,0 +1,60 @@
+package com.yiava.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Configuration properties for the memory-mapped local content store
+ * Bound from the yiava.local-store prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.local-store")
+public class LocalStoreProperties {
+
+    /**
+     * Whether findById/findAll are served from a local snapshot of the content table
+     * Requires the near cache, whose invalidation log keeps the snapshot current; startup fails without it
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the mapped data file; its content is discarded on every start
+     */
+    private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "yiava-local-store");
+
+    /**
+     * Size of each mapped segment of the data file
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Initial number of slots in the off-heap id index, rounded up to a power of two
+     */
+    private int indexInitialCapacity = 65536;
+
+    /**
+     * Number of content records read per query while loading the snapshot
+     */
+    private int loadPageSize = 1000;
+
+    /**
+     * The data file is compacted once dead bytes exceed this fraction of it
+     */
+    private double compactionGarbageRatio = 0.5;
+
+    public boolean isEnabled() { return enabled; }
+    public Path getDirectory() { return directory; }
+    public DataSize getSegmentSize() { return segmentSize; }
+    public int getIndexInitialCapacity() { return indexInitialCapacity; }
+    public int getLoadPageSize() { return loadPageSize; }
+    public double getCompactionGarbageRatio() { return compactionGarbageRatio; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setDirectory(Path directory) { this.directory = directory; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+    public void setIndexInitialCapacity(int indexInitialCapacity) { this.indexInitialCapacity = indexInitialCapacity; }
+    public void setLoadPageSize(int loadPageSize) { this.loadPageSize = loadPageSize; }
+    public void setCompactionGarbageRatio(double compactionGarbageRatio) { this.compactionGarbageRatio = compactionGarbageRatio; }
+}
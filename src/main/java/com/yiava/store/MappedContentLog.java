@@ -0,0 +1,158 @@
+package com.yiava.store;
+
+import com.yiava.entity.Content;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only data file of content records, mapped into memory segment by segment
+ *
+ * Record layout: total length (int), id, version, created and updated epoch seconds (long each),
+ * created and updated nanos (int each), UTF-8 text length (int), text bytes. A record never
+ * spans two segments; the tail of a segment that cannot hold the next record is left unused.
+ * Not thread-safe; the store guards it with its lock.
+ */
+final class MappedContentLog implements Closeable {
+
+    private static final int HEADER_BYTES = 4 + 8 * 4 + 4 * 2 + 4;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long writePosition;
+
+    MappedContentLog(Path file, int segmentSize) throws IOException {
+        this.file = file;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Append a record
+     *
+     * @param content the record, with id and version set
+     * @return the offset of the record
+     * @throws IOException if a new segment cannot be mapped
+     */
+    long append(Content content) throws IOException {
+        byte[] text = content.getContent().getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + text.length;
+        if (length > segmentSize) {
+            throw new IOException("Record of " + length + " bytes does not fit a " + segmentSize + " byte segment");
+        }
+        int inSegment = (int) (writePosition % segmentSize);
+        if (inSegment + length > segmentSize) {
+            writePosition += segmentSize - inSegment;
+            inSegment = 0;
+        }
+        MappedByteBuffer segment = segmentFor(writePosition);
+
+        segment.putInt(inSegment, length);
+        segment.putLong(inSegment + 4, content.getId());
+        segment.putLong(inSegment + 12, content.getVersion() == null ? 0L : content.getVersion());
+        putTime(segment, inSegment + 20, inSegment + 36, content.getCreatedAt());
+        putTime(segment, inSegment + 28, inSegment + 40, content.getUpdatedAt());
+        segment.putInt(inSegment + 44, text.length);
+        segment.put(inSegment + HEADER_BYTES, text);
+
+        long offset = writePosition;
+        writePosition += length;
+        return offset;
+    }
+
+    /**
+     * Decode the record at an offset
+     *
+     * @param offset the offset returned by {@link #append(Content)}
+     * @return the record
+     */
+    Content read(long offset) {
+        MappedByteBuffer segment = segments.get((int) (offset / segmentSize));
+        int position = (int) (offset % segmentSize);
+
+        Content content = new Content();
+        content.setId(segment.getLong(position + 4));
+        content.setVersion(segment.getLong(position + 12));
+        content.setCreatedAt(getTime(segment, position + 20, position + 36));
+        content.setUpdatedAt(getTime(segment, position + 28, position + 40));
+        byte[] text = new byte[segment.getInt(position + 44)];
+        segment.get(position + HEADER_BYTES, text);
+        content.setContent(new String(text, StandardCharsets.UTF_8));
+        return content;
+    }
+
+    /**
+     * Length of the record at an offset
+     *
+     * @param offset the record offset
+     * @return the length in bytes, header included
+     */
+    int lengthAt(long offset) {
+        return segments.get((int) (offset / segmentSize)).getInt((int) (offset % segmentSize));
+    }
+
+    /**
+     * Bytes written so far, including unused segment tails
+     *
+     * @return the write position
+     */
+    long size() {
+        return writePosition;
+    }
+
+    /**
+     * Bytes of address space currently mapped
+     *
+     * @return the mapped size
+     */
+    long mappedBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Close the file and delete it
+     * The mappings stay valid until their buffers are collected
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private MappedByteBuffer segmentFor(long position) throws IOException {
+        int index = (int) (position / segmentSize);
+        while (segments.size() <= index) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * segmentSize, segmentSize));
+        }
+        return segments.get(index);
+    }
+
+    private static void putTime(MappedByteBuffer segment, int secondsAt, int nanosAt, LocalDateTime time) {
+        segment.putLong(secondsAt, time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC));
+        segment.putInt(nanosAt, time == null ? 0 : time.getNano());
+    }
+
+    private static LocalDateTime getTime(MappedByteBuffer segment, int secondsAt, int nanosAt) {
+        long seconds = segment.getLong(secondsAt);
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, segment.getInt(nanosAt), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,162 @@
+package com.yiava.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash table from content id to data file offset, stored in a direct buffer
+ *
+ * Each slot holds id, offset and version (24 bytes). Id 0 marks an empty slot, which is
+ * safe because content ids start at 1. A deleted record keeps its slot with offset -1 so
+ * its version still wins against older copies arriving late. Not thread-safe; the store
+ * guards it with its lock.
+ */
+final class OffHeapIdIndex {
+
+    /**
+     * Offset recorded for a deleted id
+     */
+    static final long DELETED = -1L;
+
+    private static final int SLOT_BYTES = 24;
+    private static final double MAX_LOAD = 0.7;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    private int deleted;
+
+    OffHeapIdIndex(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    /**
+     * Find the slot of an id
+     *
+     * @param id the content id
+     * @return the slot number, or -1 if the id is unknown
+     */
+    int find(long id) {
+        int slot = home(id);
+        while (true) {
+            long current = slots.getLong(slot * SLOT_BYTES);
+            if (current == id) {
+                return slot;
+            }
+            if (current == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    long offsetAt(int slot) {
+        return slots.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    long versionAt(int slot) {
+        return slots.getLong(slot * SLOT_BYTES + 16);
+    }
+
+    long idAt(int slot) {
+        return slots.getLong(slot * SLOT_BYTES);
+    }
+
+    /**
+     * Insert or overwrite the entry of an id
+     *
+     * @param id the content id, greater than 0
+     * @param offset the data file offset, or {@link #DELETED}
+     * @param version the record version
+     */
+    void put(long id, long offset, long version) {
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            grow();
+        }
+        int slot = home(id);
+        while (true) {
+            long current = slots.getLong(slot * SLOT_BYTES);
+            if (current == 0) {
+                size++;
+                break;
+            }
+            if (current == id) {
+                if (offsetAt(slot) == DELETED) {
+                    deleted--;
+                }
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (offset == DELETED) {
+            deleted++;
+        }
+        int base = slot * SLOT_BYTES;
+        slots.putLong(base, id);
+        slots.putLong(base + 8, offset);
+        slots.putLong(base + 16, version);
+    }
+
+    /**
+     * Number of slots, including free ones
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Number of ids with a live record
+     *
+     * @return the live count
+     */
+    int liveCount() {
+        return size - deleted;
+    }
+
+    /**
+     * Number of ids remembered as deleted
+     *
+     * @return the deleted count
+     */
+    int deletedCount() {
+        return deleted;
+    }
+
+    /**
+     * Off-heap bytes held by the table
+     *
+     * @return the size in bytes
+     */
+    long memoryBytes() {
+        return (long) slots.capacity();
+    }
+
+    private void grow() {
+        ByteBuffer old = slots;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity << 1);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int base = slot * SLOT_BYTES;
+            long id = old.getLong(base);
+            if (id != 0) {
+                put(id, old.getLong(base + 8), old.getLong(base + 16));
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        if ((long) capacity * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Local store index cannot grow beyond " + capacity / 2 + " slots");
+        }
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        size = 0;
+        deleted = 0;
+    }
+
+    private int home(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
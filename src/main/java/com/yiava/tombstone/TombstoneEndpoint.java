@@ -0,0 +1,54 @@
+package com.yiava.tombstone;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for tombstone deletes
+ * Available at /actuator/tombstones; POST runs a purge now, regardless of the pool load
+ */
+@Component
+@Endpoint(id = "tombstones")
+public class TombstoneEndpoint {
+
+    private final TombstonePurger purger;
+    private final TombstoneProperties properties;
+
+    public TombstoneEndpoint(TombstonePurger purger, TombstoneProperties properties) {
+        this.purger = purger;
+        this.properties = properties;
+    }
+
+    /**
+     * Tombstone configuration and purge state
+     *
+     * @return the snapshot
+     */
+    @ReadOperation
+    public Map<String, Object> tombstones() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", properties.isEnabled());
+        view.putAll(purger.snapshot());
+        return view;
+    }
+
+    /**
+     * Run one purge pass immediately
+     *
+     * @return the number of rows deleted and the time taken
+     */
+    @WriteOperation
+    public Map<String, Object> purge() {
+        long started = System.nanoTime();
+        int purged = purger.purge(false);
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("purged", purged);
+        view.put("millis", (System.nanoTime() - started) / 1_000_000);
+        return view;
+    }
+}
@@ -0,0 +1,81 @@
+package com.yiava.tombstone;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for tombstone deletes and their background purge
+ * Bound from the yiava.tombstone prefix in application.yml
+ */
+@ConfigurationProperties(prefix = "yiava.tombstone")
+public class TombstoneProperties {
+
+    /**
+     * Whether deletes only mark the row; when false rows are deleted immediately
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long tombstones are kept before the purge may remove them; bounds how far behind
+     * a consumer of the tombstone feed can fall without missing deletes; whole seconds of the database clock
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * Delay between purge runs
+     */
+    private Duration purgeInterval = Duration.ofSeconds(30);
+
+    /**
+     * Rows hard-deleted per statement; keeps each statement's locks and undo small
+     */
+    private int purgeBatchSize = 200;
+
+    /**
+     * Pause between two purge statements of the same run
+     */
+    private Duration purgeBatchPause = Duration.ofMillis(50);
+
+    /**
+     * Maximum statements per run, so a backlog is worked off over several runs
+     */
+    private int purgeMaxBatchesPerRun = 50;
+
+    /**
+     * The purge only runs while at most this fraction of the pool's connections is in use
+     * and no thread is waiting for one
+     */
+    private double purgeMaxPoolUsage = 0.25;
+
+    /**
+     * Tombstones younger than this are not listed by the feed yet, so a delete that commits
+     * late cannot land behind a consumer's cursor; whole seconds of the database clock
+     */
+    private Duration feedSettleDelay = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of tombstones returned by one feed request
+     */
+    private int feedMaxLimit = 10000;
+
+    public boolean isEnabled() { return enabled; }
+    public Duration getRetention() { return retention; }
+    public Duration getPurgeInterval() { return purgeInterval; }
+    public int getPurgeBatchSize() { return purgeBatchSize; }
+    public Duration getPurgeBatchPause() { return purgeBatchPause; }
+    public int getPurgeMaxBatchesPerRun() { return purgeMaxBatchesPerRun; }
+    public double getPurgeMaxPoolUsage() { return purgeMaxPoolUsage; }
+    public Duration getFeedSettleDelay() { return feedSettleDelay; }
+    public int getFeedMaxLimit() { return feedMaxLimit; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+    public void setPurgeInterval(Duration purgeInterval) { this.purgeInterval = purgeInterval; }
+    public void setPurgeBatchSize(int purgeBatchSize) { this.purgeBatchSize = purgeBatchSize; }
+    public void setPurgeBatchPause(Duration purgeBatchPause) { this.purgeBatchPause = purgeBatchPause; }
+    public void setPurgeMaxBatchesPerRun(int purgeMaxBatchesPerRun) { this.purgeMaxBatchesPerRun = purgeMaxBatchesPerRun; }
+    public void setPurgeMaxPoolUsage(double purgeMaxPoolUsage) { this.purgeMaxPoolUsage = purgeMaxPoolUsage; }
+    public void setFeedSettleDelay(Duration feedSettleDelay) { this.feedSettleDelay = feedSettleDelay; }
+    public void setFeedMaxLimit(int feedMaxLimit) { this.feedMaxLimit = feedMaxLimit; }
+}
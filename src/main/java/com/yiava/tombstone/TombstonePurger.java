@@ -0,0 +1,151 @@
+package com.yiava.tombstone;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.yiava.mapper.ContentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hard-deletes tombstoned content rows once they are older than the retention period
+ *
+ * Each run issues at most purge-max-batches-per-run statements of purge-batch-size rows with a
+ * pause in between, and stops as soon as the connection pool gets busy, so a large backlog
+ * is worked off in small steps during quiet periods instead of competing with requests.
+ * Runs even when tombstone deletes are disabled, to clear tombstones left from before.
+ *
+ * Runs on the Spring task scheduler.
+ */
+@Component
+public class TombstonePurger implements SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TombstonePurger.class);
+
+    private final ContentMapper contentMapper;
+    private final TombstoneProperties properties;
+    private final DruidDataSource pool;
+
+    private final AtomicLong purgedTotal = new AtomicLong();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong deferredRuns = new AtomicLong();
+    private volatile LocalDateTime lastRun;
+
+    public TombstonePurger(ContentMapper contentMapper, TombstoneProperties properties, DataSource dataSource) {
+        this.contentMapper = contentMapper;
+        this.properties = properties;
+        this.pool = druidPool(dataSource);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::purgeWhenIdle, properties.getPurgeInterval().toMillis());
+    }
+
+    /**
+     * Scheduled run; failures are logged and retried on the next run
+     */
+    public void purgeWhenIdle() {
+        try {
+            purge(true);
+        } catch (Exception ex) {
+            logger.warn("Failed to purge content tombstones: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Purge expired tombstones in bounded batches
+     *
+     * @param onlyWhenIdle whether to stop as soon as the connection pool is busy
+     * @return the number of rows deleted
+     */
+    public int purge(boolean onlyWhenIdle) {
+        runs.incrementAndGet();
+        lastRun = LocalDateTime.now();
+        long retentionSeconds = properties.getRetention().toSeconds();
+        int batchSize = properties.getPurgeBatchSize();
+        int total = 0;
+        for (int batch = 0; batch < properties.getPurgeMaxBatchesPerRun(); batch++) {
+            if (onlyWhenIdle && !isIdle()) {
+                deferredRuns.incrementAndGet();
+                logger.debug("Deferring tombstone purge, connection pool is busy");
+                break;
+            }
+            int deleted = contentMapper.purgeTombstones(retentionSeconds, batchSize);
+            total += deleted;
+            purgedTotal.addAndGet(deleted);
+            if (deleted < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Purged {} content tombstones deleted more than {} ago", Integer.valueOf(total), properties.getRetention());
+        }
+        return total;
+    }
+
+    /**
+     * Purge state for the actuator endpoint
+     *
+     * @return the snapshot
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("retention", properties.getRetention().toString());
+        view.put("pendingTombstones", contentMapper.countTombstones());
+        view.put("purgedTotal", purgedTotal.get());
+        view.put("runs", runs.get());
+        view.put("deferredRuns", deferredRuns.get());
+        view.put("lastRun", lastRun == null ? null : lastRun.toString());
+        if (pool != null) {
+            view.put("poolActive", pool.getActiveCount());
+            view.put("poolMaxActive", pool.getMaxActive());
+        }
+        return view;
+    }
+
+    /**
+     * Whether the pool has spare connections and nobody waits for one
+     * Without a Druid pool there is nothing to measure and the purge always proceeds
+     *
+     * @return true if a purge statement may run now
+     */
+    private boolean isIdle() {
+        if (pool == null) {
+            return true;
+        }
+        return pool.getWaitThreadCount() == 0
+                && pool.getActiveCount() <= pool.getMaxActive() * properties.getPurgeMaxPoolUsage();
+    }
+
+    /**
+     * Sleep between two purge statements
+     *
+     * @return false if interrupted, in which case the run stops
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPurgeBatchPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static DruidDataSource druidPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DruidDataSource.class) ? dataSource.unwrap(DruidDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
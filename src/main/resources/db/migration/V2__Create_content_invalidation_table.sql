@@ -0,0 +1,12 @@
+-- Flyway migration script
+-- Version: 2.0
+-- Description: Create invalidation log used to keep per-node content caches coherent
+-- Date: 2026-10-19
+
+-- One row per content write; every node tails this table and evicts the listed ids
+CREATE TABLE IF NOT EXISTS content_invalidation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content_id BIGINT NOT NULL COMMENT 'Id of the content record that changed',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Write timestamp',
+    INDEX idx_content_invalidation_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Content cache invalidation log';
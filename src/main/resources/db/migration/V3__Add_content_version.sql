@@ -0,0 +1,7 @@
+-- Flyway migration script
+-- Version: 3.0
+-- Description: Add optimistic lock version to content, used for ETags and If-Match updates
+-- Date: 2026-10-19
+
+ALTER TABLE content
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT 'Incremented on every update';
@@ -0,0 +1,14 @@
+-- Flyway migration script
+-- Version: 4.0
+-- Description: Create hourly rollup of content counts and lengths, maintained by content writes
+-- Date: 2026-10-19
+
+-- Each hour is split into a few slots (content id modulo the slot count) so concurrent
+-- creates in the same hour do not all wait on a single row lock; readers sum the slots
+CREATE TABLE IF NOT EXISTS content_stats_hourly (
+    bucket_start DATETIME NOT NULL COMMENT 'Start of the hour the records were created in',
+    slot INT NOT NULL COMMENT 'Content id modulo the slot count',
+    content_count BIGINT NOT NULL DEFAULT 0 COMMENT 'Number of live records',
+    total_length BIGINT NOT NULL DEFAULT 0 COMMENT 'Sum of content lengths in characters',
+    PRIMARY KEY (bucket_start, slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Hourly content rollup';
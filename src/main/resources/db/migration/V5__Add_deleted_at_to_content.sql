@@ -0,0 +1,10 @@
+-- Flyway migration script
+-- Version: 5.0
+-- Description: Add tombstone column to content; deletes set it and a background job purges old tombstones
+-- Date: 2026-10-19
+
+ALTER TABLE content
+    ADD COLUMN deleted_at TIMESTAMP NULL DEFAULT NULL COMMENT 'Set when the record is deleted, NULL while live';
+
+-- Serves both the purge (deleted_at < cutoff) and the tombstone feed, ordered by (deleted_at, id)
+CREATE INDEX idx_content_deleted_at ON content (deleted_at, id);
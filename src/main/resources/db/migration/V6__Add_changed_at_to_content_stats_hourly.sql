@@ -0,0 +1,7 @@
+-- Flyway migration script
+-- Version: 6.0
+-- Description: Record when each rollup slot was last changed by a content write, so a backfill can reconcile writes made during its scan
+-- Date: 2026-10-19
+
+ALTER TABLE content_stats_hourly
+    ADD COLUMN changed_at TIMESTAMP NULL DEFAULT NULL COMMENT 'Last time a content write changed the slot, NULL if only the backfill wrote it';